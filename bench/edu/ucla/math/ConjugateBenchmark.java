@@ -0,0 +1,134 @@
+package edu.ucla.math;
+
+import java.util.SplittableRandom;
+
+/**
+ * A benchmark of {@link Partition#conjugate(Partition)} against the method it
+ * replaced, which erased and inserted a part for every cell of the Ferrers
+ * diagram. For each weight, the benchmark samples uniformly random
+ * partitions, checks that both methods give the same conjugate of each one,
+ * and prints the average time each method takes per partition. It is run as
+ * <pre>
+ * java edu.ucla.math.ConjugateBenchmark [samples [weight ...]]
+ * </pre>
+ * and defaults to 200 samples of each of the weights 100, 1000 and 3000.
+ * 
+ * @author Kris Torres
+ */
+public final class ConjugateBenchmark
+{
+   /** The default number of partitions sampled of each weight. */
+   private static final int DEFAULT_SAMPLES = 200;
+   
+   /** The default weights of the sampled partitions. */
+   private static final int[] DEFAULT_WEIGHTS = {100, 1000, 3000};
+   
+   /** The number of timed passes, of which only the last is reported. */
+   private static final int PASSES = 5;
+   
+   /** The seed of the random number generator, for repeatable runs. */
+   private static final long SEED = 0x5DEECE66DL;
+   
+   /** Prevents the instantiation of this class. */
+   private ConjugateBenchmark() {}
+   
+   /**
+    * Returns the conjugate of the specified partition the way that
+    * {@link Partition#conjugate(Partition)} used to compute it, by moving
+    * each cell of the Ferrers diagram of the partition from one column of the
+    * result to the next, in O(<i>n</i> · <i>k</i>) time.
+    * 
+    * @param p   the partition
+    * 
+    * @return the conjugate
+    */
+   private static Partition eraseInsertConjugate(Partition p)
+   {
+      Partition q = new Partition();
+      
+      // Inserts the rows in the Ferrers diagram as columns into the result.
+      for (int i = 0; i < p.numberOfParts(); i++)
+      {
+         for (int j = 0; j < p.part(i); j++)
+         {
+            q.erase(i);
+            q.insert(i + 1);
+         }
+      }
+      
+      return q;
+   }
+   
+   /**
+    * Runs the benchmark.
+    * 
+    * @param args   the number of samples of each weight, followed by the
+    *               weights
+    * 
+    * @throws IllegalStateException if the methods give different conjugates
+    *         of a partition
+    */
+   public static void main(String[] args)
+   {
+      int samples = args.length > 0 ? Integer.parseInt(args[0])
+         : DEFAULT_SAMPLES;
+      int[] weights = DEFAULT_WEIGHTS;
+      
+      if (args.length > 1)
+      {
+         weights = new int[args.length - 1];
+         for (int i = 1; i < args.length; i++)
+            weights[i - 1] = Integer.parseInt(args[i]);
+      }
+      
+      for (int n : weights) run(n, samples);
+   }
+   
+   /**
+    * Samples the specified number of partitions of the specified weight,
+    * checks both methods on them, and prints how long each method takes.
+    * 
+    * @param n         the weight
+    * @param samples   the number of partitions
+    * 
+    * @throws IllegalStateException if the methods give different conjugates
+    *         of a partition
+    */
+   private static void run(int n, int samples)
+   {
+      UniformPartitionSampler sampler =
+         new UniformPartitionSampler(n, new SplittableRandom(SEED + n));
+      Partition[] partitions = new Partition[samples];
+      for (int i = 0; i < samples; i++) partitions[i] = sampler.sample();
+      
+      // Tests if both methods give the same conjugates.
+      for (Partition p : partitions)
+      {
+         Partition expected = eraseInsertConjugate(p);
+         if (!Partition.conjugate(p).equals(expected))
+            throw new IllegalStateException("Conjugates of " + p + " differ.");
+      }
+      
+      // Times each method after passes that warm it up.
+      long sink = 0;
+      long before = 0;
+      long after = 0;
+      
+      for (int pass = 0; pass < PASSES; pass++)
+      {
+         long start = System.nanoTime();
+         for (Partition p : partitions)
+            sink += eraseInsertConjugate(p).numberOfParts();
+         before = System.nanoTime() - start;
+         
+         start = System.nanoTime();
+         for (Partition p : partitions)
+            sink += Partition.conjugate(p).numberOfParts();
+         after = System.nanoTime() - start;
+      }
+      
+      System.out.printf("n = %d: erase/insert %.4g us, column lengths %.4g "
+         + "us per partition; %d conjugates match, checksum %d%n", n,
+         before / 1e3 / samples, after / 1e3 / samples, samples, sink);
+   }
+}
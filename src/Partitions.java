@@ -13,6 +13,7 @@ import java.util.Iterator;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
@@ -25,6 +26,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JTextField;
+import javax.swing.Timer;
 import javax.swing.border.Border;
 import javax.swing.border.TitledBorder;
 
@@ -177,6 +179,10 @@ public class Partitions extends JApplet
       private int rows;
       private int columns;
       
+      // Animation scheduler
+      private final Vector<Tween> tweens = new Vector<Tween>();
+      private final Timer timer = new Timer(DELAY, new TweenListener());
+      
       @Override
       public void actionPerformed(ActionEvent e)
       {
@@ -250,7 +256,7 @@ public class Partitions extends JApplet
        */
       private void add(Color upper, Color lower) throws InterruptedException
       {
-         Vector<Thread> v = new Vector<Thread>();
+         Vector<Tween> v = new Vector<Tween>();
          Set<Integer> upperY = new TreeSet<Integer>();
          
          // Inserts the y-coordinates in the upper component to the set.
@@ -280,16 +286,33 @@ public class Partitions extends JApplet
                if (dot != null && dot.getColor() == lower
                   && y == dot.y / (DOT_RADIUS * 3) - rows)
                {
-                  v.add(new Thread(new AnimationRunnable(dot, dx, 0)));
+                  v.add(new Tween(dot, dx, 0));
                }
             }
          }
          
-         for (Thread t : v) t.start();
-         for (Thread t : v) t.join();
+         animate(v);
          move(lower, 0, -rows);
       }
       
+      /**
+       * Plays the specified tweens on the animation timer alongside any other
+       * active tweens, and waits until all of them have finished.
+       * 
+       * @param batch   the tweens to play
+       */
+      private void animate(Vector<Tween> batch) throws InterruptedException
+      {
+         if (batch.isEmpty()) return;
+         
+         CountDownLatch done = new CountDownLatch(batch.size());
+         for (Tween tween : batch) tween.done = done;
+         
+         tweens.addAll(batch);
+         timer.start();
+         done.await();
+      }
+      
       /** Animates the cut-and-stretch bijection. */
       private void animateCutStretchBijection() throws InterruptedException
       {
@@ -604,37 +627,10 @@ public class Partitions extends JApplet
        */
       private void createRandomSelfConjugatePartition(int n, boolean exact)
       {
-         // Generates a random odd partition with distinct parts.
-         if (exact) λ = Partition.distinctOddRandomExactly(n);
-         else λ = Partition.distinctOddRandom(n);
-         
-         Integer[] parts = λ.toArray();
-         Partition λ1 = new Partition();
-         Partition λ2 = new Partition();
-         
-         // Splits the partition into roughly two halves.
-         for (int part : parts) λ1.insert(part / 2 + 1);
-         for (int part : parts) if (part > 1) λ2.insert(part / 2);
-         
-         // Creates the self-conjugate partition.
-         for (int i = 0; i < λ2.numberOfParts(); i++)
-         {
-            for (int j = 0; j < λ2.part(i); j++)
-            {
-               if (j < λ1.numberOfParts() - i - 1)
-               {
-                  int part = λ1.part(i + j + 1);
-                  λ1.erase(part);
-                  λ1.insert(part + 1);
-               }
-               else
-               {
-                  λ1.insert(1);
-               }
-            }
-         }
-         
-         λ = λ1;
+         // Builds the partition from the hook lengths of a random odd
+         // partition with distinct parts.
+         if (exact) λ = Partition.selfConjugateRandomExactly(n);
+         else λ = Partition.selfConjugateRandom(n);
       }
       
       /**
@@ -689,16 +685,15 @@ public class Partitions extends JApplet
        */
       private void move(Color color, int dx, int dy) throws InterruptedException
       {
-         Vector<Thread> v = new Vector<Thread>();
+         Vector<Tween> v = new Vector<Tween>();
          
          for (Dot dot : ferrers)
          {
             if (dot != null && dot.getColor() == color)
-               v.add(new Thread(new AnimationRunnable(dot, dx, dy)));
+               v.add(new Tween(dot, dx, dy));
          }
          
-         for (Thread t : v) t.start();
-         for (Thread t : v) t.join();
+         animate(v);
       }
       
       /**
@@ -726,7 +721,7 @@ public class Partitions extends JApplet
       private void shift(Color color, int a, int b, int c, int d)
          throws InterruptedException
       {
-         Vector<Thread> v = new Vector<Thread>();
+         Vector<Tween> v = new Vector<Tween>();
          
          for (Dot dot : ferrers)
          {
@@ -736,12 +731,11 @@ public class Partitions extends JApplet
                int yi = dot.y / (DOT_RADIUS * 3);
                int xf = a * xi + b * yi;
                int yf = c * xi + d * yi;
-               v.add(new Thread(new AnimationRunnable(dot, xf - xi, yf - yi)));
+               v.add(new Tween(dot, xf - xi, yf - yi));
             }
          }
          
-         for (Thread t : v) t.start();
-         for (Thread t : v) t.join();
+         animate(v);
       }
       
       /**
@@ -779,7 +773,7 @@ public class Partitions extends JApplet
       private void stretch(Color color, double k, double l)
          throws InterruptedException
       {
-         Vector<Thread> v = new Vector<Thread>();
+         Vector<Tween> v = new Vector<Tween>();
          
          for (Dot dot : ferrers)
          {
@@ -789,18 +783,17 @@ public class Partitions extends JApplet
                int y = dot.y / (DOT_RADIUS * 3);
                int dx = (int) (x * k) - x;
                int dy = (int) (y / l) - y;
-               v.add(new Thread(new AnimationRunnable(dot, dx, dy)));
+               v.add(new Tween(dot, dx, dy));
             }
          }
          
-         for (Thread t : v) t.start();
-         for (Thread t : v) t.join();
+         animate(v);
       }
       
       /** Transposes the Ferrers diagram. */
       private void transpose() throws InterruptedException
       {
-         Vector<Thread> v = new Vector<Thread>();
+         Vector<Tween> v = new Vector<Tween>();
          
          for (Dot dot : ferrers)
          {
@@ -808,12 +801,11 @@ public class Partitions extends JApplet
             {
                int dx = (dot.y - dot.x) / (DOT_RADIUS * 3);
                int dy = (dot.x - dot.y) / (DOT_RADIUS * 3);
-               v.add(new Thread(new AnimationRunnable(dot, dx, dy)));
+               v.add(new Tween(dot, dx, dy));
             }
          }
          
-         for (Thread t : v) t.start();
-         for (Thread t : v) t.join();
+         animate(v);
       }
       
       /**
@@ -826,7 +818,7 @@ public class Partitions extends JApplet
        */
       private void transpose(Color color, int k) throws InterruptedException
       {
-         Vector<Thread> v = new Vector<Thread>();
+         Vector<Tween> v = new Vector<Tween>();
          
          for (Dot dot : ferrers)
          {
@@ -834,12 +826,11 @@ public class Partitions extends JApplet
             {
                int dx = (dot.y - dot.x) / (DOT_RADIUS * 3) - k;
                int dy = (dot.x - dot.y) / (DOT_RADIUS * 3) + k;
-               v.add(new Thread(new AnimationRunnable(dot, dx, dy)));
+               v.add(new Tween(dot, dx, dy));
             }
          }
          
-         for (Thread t : v) t.start();
-         for (Thread t : v) t.join();
+         animate(v);
       }
       
       /**
@@ -867,57 +858,77 @@ public class Partitions extends JApplet
          }
       }
       
-      /** A runnable with animation. */
-      private class AnimationRunnable implements Runnable
+      /**
+       * A tween which moves a dot by a whole vector of lattice units in a fixed
+       * number of steps of the animation timer.
+       */
+      private class Tween
       {
          // Instance variables
          private Dot dot;
          private int dx;
          private int dy;
+         private int steps;
+         private CountDownLatch done;
          
          /**
-          * Constructs a runnable with the specified dot and changes in the
-          * dot's <i>x</i>-coordinate and <i>y</i>-coordinate.
+          * Constructs a tween with the specified dot and changes in the dot's
+          * <i>x</i>-coordinate and <i>y</i>-coordinate.
           * 
           * @param dot   the dot
           * @param dx    the change in the dot's <i>x</i>-coordinate
           * @param dy    the change in the dot's <i>y</i>-coordinate
           */
-         public AnimationRunnable(Dot dot, int dx, int dy)
+         public Tween(Dot dot, int dx, int dy)
          {
             this.dot = dot;
             this.dx = dx;
             this.dy = dy;
+            
+            // The dot moves by (dx, dy) pixels per step.
+            if (dx != 0 || dy != 0) steps = 3 * DOT_RADIUS;
          }
          
-         @Override
-         public void run()
+         /**
+          * Advances this tween by one step.
+          * 
+          * @return <code>true</code> if this tween has steps left, or
+          *         <code>false</code> if it has finished
+          */
+         private boolean step()
          {
-            try
+            if (steps > 0)
             {
-               int x = dot.x + 3 * DOT_RADIUS * dx;
-               int y = dot.y + 3 * DOT_RADIUS * dy;
-               
-               // Moves the dot.
-               if (dx >= 0)
-               {
-                  if (dy >= 0) while (dot.x < x || dot.y < y) animate();
-                  else while (dot.x < x || dot.y > y) animate();
-               }
-               else
-               {
-                  if (dy >= 0) while (dot.x > x || dot.y < y) animate();
-                  else while (dot.x > x || dot.y > y) animate();
-               }
+               dot.translate(dx, dy);
+               steps--;
             }
-            catch (InterruptedException e) {}
+            
+            if (steps > 0) return true;
+            
+            done.countDown();
+            return false;
          }
-         
-         /** Animates this runnable. */
-         private void animate() throws InterruptedException
+      }
+      
+      /**
+       * A listener that advances every active tween by one step on each tick
+       * of the animation timer, and repaints the board once.
+       */
+      private class TweenListener implements ActionListener
+      {
+         @Override
+         public void actionPerformed(ActionEvent e)
          {
-            dot.translate(dx, dy);
-            pause(DELAY);
+            synchronized (tweens)
+            {
+               Iterator<Tween> it = tweens.iterator();
+               while (it.hasNext()) if (!it.next().step()) it.remove();
+               
+               // Stops the timer until more tweens are played.
+               if (tweens.isEmpty()) timer.stop();
+            }
+            
+            board.repaint();
          }
       }
    }
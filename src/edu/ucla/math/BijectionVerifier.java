@@ -0,0 +1,354 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An exhaustive verifier of a {@link PartitionBijection}. For every partition
+ * λ of <i>n</i> in a family that contains the domain, the verifier checks that
+ * the image of λ has the weight of λ and lies in both the range of the
+ * bijection and a family that contains the range, that the inverse maps it
+ * back to λ, and that no other partition has the same image. The last check
+ * marks the index of each image in the range family in a bit set, which takes
+ * one bit per partition of the range instead of a set of partitions.
+ * <p>
+ * The partitions of the domain family are split by their indices into chunks
+ * of a fixed size, and the chunks are enumerated over the threads of a
+ * fork/join pool. For example, the following checks Glaisher's bijection on
+ * every partition into odd parts of up to 80:
+ * <pre>
+ * VerificationReport report = new BijectionVerifier(
+ *    PartitionBijections.GLAISHER, PartitionFamily.ODD,
+ *    PartitionFamily.DISTINCT).verifyUpTo(80);
+ * </pre>
+ * 
+ * @author Kris Torres
+ */
+public final class BijectionVerifier
+{
+   /** The number of partitions enumerated by a chunk. */
+   private static final int CHUNK_SIZE = 4096;
+   
+   /** The bijection to be verified. */
+   private final PartitionBijection bijection;
+   
+   /** The family that contains the domain. */
+   private final PartitionFamily domain;
+   
+   /** The family that contains the range. */
+   private final PartitionFamily range;
+   
+   /**
+    * Constructs a verifier of the specified bijection that enumerates the
+    * specified family, which contains the domain, and indexes the images in
+    * the specified family, which contains the range. The partitions of the
+    * domain family that are not in the domain are skipped.
+    * 
+    * @param bijection   the bijection
+    * @param domain      the family that contains the domain
+    * @param range       the family that contains the range
+    * 
+    * @throws NullPointerException if the bijection or either family is
+    *         <code>null</code>
+    */
+   public BijectionVerifier(PartitionBijection bijection,
+      PartitionFamily domain, PartitionFamily range)
+   {
+      // Tests if the given bijection is not null.
+      if (bijection == null)
+         throw new NullPointerException("Bijection is null.");
+      
+      // Tests if the given families are not null.
+      if (domain == null || range == null)
+         throw new NullPointerException("Family is null.");
+      
+      this.bijection = bijection;
+      this.domain = domain;
+      this.range = range;
+   }
+   
+   /**
+    * Checks the specified partition and marks the index of its image in the
+    * specified bit set.
+    * 
+    * @param p      the partition
+    * @param seen   the bits of the indices of the images seen so far
+    * @param run    the state of the run
+    */
+   private void check(Partition p, AtomicLongArray seen, Run run)
+   {
+      if (run.failed) return;
+      
+      if (!bijection.isInDomain(p))
+      {
+         run.skipped.increment();
+         return;
+      }
+      
+      try
+      {
+         Partition q = bijection.apply(p);
+         
+         // Tests if the image is in the range.
+         if (q.weight() != p.weight() || !bijection.isInRange(q)
+            || !range.contains(q))
+         {
+            run.fail(p, "its image " + q + " is not in the range");
+            return;
+         }
+         
+         // Tests if the inverse maps the image back.
+         Partition r = bijection.inverse(q);
+         if (!r.equals(p))
+         {
+            run.fail(p, "its image " + q + " maps back to " + r);
+            return;
+         }
+         
+         // Tests if no other partition has been mapped to the image.
+         long index = range.indexOf(q).longValue();
+         long bit = 1L << index;
+         if ((seen.getAndAccumulate((int) (index >>> 6), bit, (a, b) -> a | b)
+            & bit) != 0)
+         {
+            run.fail(p, "its image " + q + " is also the image of another "
+               + "partition");
+            return;
+         }
+      }
+      catch (RuntimeException e)
+      {
+         run.fail(p, e.toString());
+         return;
+      }
+      
+      run.checked.increment();
+   }
+   
+   /**
+    * Checks every partition of the weights in the specified range in the
+    * specified fork/join pool, one weight after another, until a
+    * counterexample is found.
+    * 
+    * @param from   the smallest weight
+    * @param to     the largest weight
+    * @param pool   the fork/join pool
+    * 
+    * @return the report of the run
+    */
+   private VerificationReport run(int from, int to, ForkJoinPool pool)
+   {
+      Run run = new Run();
+      long start = System.nanoTime();
+      
+      for (int n = from; n <= to && !run.failed; n++)
+      {
+         BigInteger partitions = domain.count(n);
+         BigInteger images = range.count(n);
+         
+         // Tests if the chunks and the bits of the images can be indexed by
+         // an int.
+         if (partitions.bitLength() > 42 || images.bitLength() > 36)
+            throw new IllegalArgumentException("Illegal weight: " + n);
+         
+         long count = partitions.longValue();
+         if (count == 0) continue;
+         
+         AtomicLongArray seen =
+            new AtomicLongArray((int) ((images.longValue() + 63) >>> 6));
+         int chunks = (int) ((count + CHUNK_SIZE - 1) / CHUNK_SIZE);
+         pool.invoke(new ChunkAction(n, 0, chunks, count, seen, run));
+      }
+      
+      long nanos = System.nanoTime() - start;
+      return new VerificationReport(run.checked.sum(), run.skipped.sum(),
+         nanos, pool.getParallelism(), run.counterexample, run.failure);
+   }
+   
+   /**
+    * Checks every partition of the specified positive integer in the domain
+    * in the common fork/join pool.
+    * 
+    * @param n   the positive integer
+    * 
+    * @return the report of the run
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the partitions
+    *         of <i>n</i> are too many to index
+    */
+   public VerificationReport verify(int n)
+   {
+      return verify(n, ForkJoinPool.commonPool());
+   }
+   
+   /**
+    * Checks every partition of the specified positive integer in the domain
+    * in the specified fork/join pool.
+    * 
+    * @param n      the positive integer
+    * @param pool   the fork/join pool
+    * 
+    * @return the report of the run
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the partitions
+    *         of <i>n</i> are too many to index
+    * @throws NullPointerException if the pool is <code>null</code>
+    */
+   public VerificationReport verify(int n, ForkJoinPool pool)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given pool is not null.
+      if (pool == null) throw new NullPointerException("Pool is null.");
+      
+      return run(n, n, pool);
+   }
+   
+   /**
+    * Checks every partition of every positive integer up to the specified
+    * integer in the domain in the common fork/join pool.
+    * 
+    * @param n   the largest weight
+    * 
+    * @return the report of the run
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the partitions
+    *         of <i>n</i> are too many to index
+    */
+   public VerificationReport verifyUpTo(int n)
+   {
+      return verifyUpTo(n, ForkJoinPool.commonPool());
+   }
+   
+   /**
+    * Checks every partition of every positive integer up to the specified
+    * integer in the domain in the specified fork/join pool. The weights are
+    * checked in increasing order, and the run stops at the first weight with
+    * a counterexample.
+    * 
+    * @param n      the largest weight
+    * @param pool   the fork/join pool
+    * 
+    * @return the report of the run
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the partitions
+    *         of <i>n</i> are too many to index
+    * @throws NullPointerException if the pool is <code>null</code>
+    */
+   public VerificationReport verifyUpTo(int n, ForkJoinPool pool)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given pool is not null.
+      if (pool == null) throw new NullPointerException("Pool is null.");
+      
+      return run(1, n, pool);
+   }
+   
+   /** A fork/join action that checks the partitions of a range of chunks. */
+   private final class ChunkAction extends RecursiveAction
+   {
+      /** The serialization version of this class. */
+      private static final long serialVersionUID = 1L;
+      
+      /** The weight of the partitions. */
+      private final int n;
+      
+      /** The first chunk of the range. */
+      private final int from;
+      
+      /** The chunk after the last chunk of the range. */
+      private final int to;
+      
+      /** The number of partitions of the weight in the domain family. */
+      private final long count;
+      
+      /** The bits of the indices of the images seen so far. */
+      private final AtomicLongArray seen;
+      
+      /** The state of the run. */
+      private final Run run;
+      
+      /**
+       * Constructs an action that checks the partitions of the specified
+       * range of chunks.
+       * 
+       * @param n       the weight of the partitions
+       * @param from    the first chunk of the range
+       * @param to      the chunk after the last chunk of the range
+       * @param count   the number of partitions in the domain family
+       * @param seen    the bits of the indices of the images seen so far
+       * @param run     the state of the run
+       */
+      private ChunkAction(int n, int from, int to, long count,
+         AtomicLongArray seen, Run run)
+      {
+         this.n = n;
+         this.from = from;
+         this.to = to;
+         this.count = count;
+         this.seen = seen;
+         this.run = run;
+      }
+      
+      @Override
+      protected void compute()
+      {
+         // Splits the range in half until it has a single chunk.
+         if (to - from > 1)
+         {
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkAction(n, from, middle, count, seen, run),
+               new ChunkAction(n, middle, to, count, seen, run));
+            return;
+         }
+         
+         if (run.failed) return;
+         
+         long first = (long) from * CHUNK_SIZE;
+         long last = Math.min(first + CHUNK_SIZE, count);
+         domain.forEach(n, BigInteger.valueOf(first), last - first,
+            p -> check(p, seen, run));
+      }
+   }
+   
+   /** The state that the actions of a run share. */
+   private static final class Run
+   {
+      /** The number of partitions that were checked. */
+      private final LongAdder checked = new LongAdder();
+      
+      /** The number of partitions that were not in the domain. */
+      private final LongAdder skipped = new LongAdder();
+      
+      /** Whether a counterexample has been found. */
+      private volatile boolean failed;
+      
+      /** The first counterexample. */
+      private Partition counterexample;
+      
+      /** Why the first counterexample fails. */
+      private String failure;
+      
+      /**
+       * Records the specified counterexample, unless one has been found
+       * before.
+       * 
+       * @param p        the counterexample
+       * @param reason   why the counterexample fails
+       */
+      private synchronized void fail(Partition p, String reason)
+      {
+         if (failed) return;
+         
+         counterexample = p;
+         failure = reason;
+         failed = true;
+      }
+   }
+}
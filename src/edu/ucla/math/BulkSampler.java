@@ -0,0 +1,200 @@
+package edu.ucla.math;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A parallel sampler of large numbers of random partitions. The samples are
+ * split into chunks of a fixed size, and every chunk draws its samples from
+ * its own sampler with its own {@link SplittableRandom}, split in order from a
+ * master generator with a given seed. The chunks are spread over the threads
+ * of a fork/join pool, so for a given seed the <i>k</i>-th sample is the same
+ * no matter how many threads there are.
+ * <p>
+ * For example, the following fills an array with 10<sup>7</sup> random
+ * partitions of at least 100:
+ * <pre>
+ * BulkSampler bulk = new BulkSampler(
+ *    random -&gt; new PartitionSampler(100, PartType.ALL, random)::sample);
+ * Partition[] samples = new Partition[10_000_000];
+ * bulk.sample(samples.length, 42L, (p, k) -&gt; samples[(int) k] = p);
+ * </pre>
+ * 
+ * @author Kris Torres
+ */
+public final class BulkSampler
+{
+   /** The number of samples drawn by a chunk. */
+   private static final int CHUNK_SIZE = 1024;
+   
+   /** The factory of the samplers of the chunks. */
+   private final Function<SplittableRandom, ? extends Supplier<Partition>>
+      factory;
+   
+   /**
+    * Constructs a bulk sampler whose chunks draw their samples from the
+    * samplers made by the specified factory. The factory is called once per
+    * chunk, possibly from several threads at once, with the random number
+    * generator of the chunk.
+    * 
+    * @param factory   the factory of samplers
+    * 
+    * @throws NullPointerException if the factory is <code>null</code>
+    */
+   public BulkSampler(
+      Function<SplittableRandom, ? extends Supplier<Partition>> factory)
+   {
+      // Tests if the given factory is not null.
+      if (factory == null)
+         throw new NullPointerException("Sampler factory is null.");
+      
+      this.factory = factory;
+   }
+   
+   /**
+    * Returns an array of the specified number of random partitions drawn with
+    * the specified seed in the common fork/join pool.
+    * 
+    * @param count   the number of samples
+    * @param seed    the seed of the master random number generator
+    * 
+    * @return the random partitions
+    * 
+    * @throws IllegalArgumentException if the number of samples is negative
+    */
+   public Partition[] sample(int count, long seed)
+   {
+      Partition[] samples = new Partition[Math.max(count, 0)];
+      sample(count, seed, (p, k) -> samples[(int) k] = p);
+      return samples;
+   }
+   
+   /**
+    * Draws the specified number of random partitions with the specified seed
+    * in the common fork/join pool, and passes each of them with its index to
+    * the specified sink.
+    * 
+    * @param count   the number of samples
+    * @param seed    the seed of the master random number generator
+    * @param sink    the sink of the samples
+    * 
+    * @throws IllegalArgumentException if the number of samples is negative
+    * @throws NullPointerException if the sink is <code>null</code>
+    */
+   public void sample(long count, long seed,
+      ObjLongConsumer<? super Partition> sink)
+   {
+      sample(count, seed, sink, ForkJoinPool.commonPool());
+   }
+   
+   /**
+    * Draws the specified number of random partitions with the specified seed
+    * in the specified fork/join pool, and passes each of them with its index
+    * to the specified sink. The sink is called from the threads of the pool,
+    * so it must be thread-safe, but it is never called twice with the same
+    * index.
+    * 
+    * @param count   the number of samples
+    * @param seed    the seed of the master random number generator
+    * @param sink    the sink of the samples
+    * @param pool    the fork/join pool
+    * 
+    * @throws IllegalArgumentException if the number of samples is negative
+    * @throws NullPointerException if the sink is <code>null</code>, or if the
+    *         pool is <code>null</code>
+    */
+   public void sample(long count, long seed,
+      ObjLongConsumer<? super Partition> sink, ForkJoinPool pool)
+   {
+      // Tests if the number of samples is nonnegative.
+      if (count < 0)
+         throw new IllegalArgumentException("Illegal sample count: " + count);
+      
+      // Tests if the given sink is not null.
+      if (sink == null) throw new NullPointerException("Sink is null.");
+      
+      // Tests if the given pool is not null.
+      if (pool == null) throw new NullPointerException("Pool is null.");
+      
+      if (count == 0) return;
+      
+      long chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+      
+      // Tests if the chunks can be indexed by an int.
+      if (chunks > Integer.MAX_VALUE)
+         throw new IllegalArgumentException("Illegal sample count: " + count);
+      
+      // Splits the random number generators of the chunks in order, so that
+      // they do not depend on how the chunks are scheduled.
+      SplittableRandom master = new SplittableRandom(seed);
+      SplittableRandom[] randoms = new SplittableRandom[(int) chunks];
+      for (int c = 0; c < randoms.length; c++) randoms[c] = master.split();
+      
+      pool.invoke(new ChunkAction(randoms, 0, randoms.length, count, sink));
+   }
+   
+   /** A fork/join action that draws the samples of a range of chunks. */
+   private final class ChunkAction extends RecursiveAction
+   {
+      /** The serialization version of this class. */
+      private static final long serialVersionUID = 1L;
+      
+      /** The random number generators of all of the chunks. */
+      private final SplittableRandom[] randoms;
+      
+      /** The first chunk of the range. */
+      private final int from;
+      
+      /** The chunk after the last chunk of the range. */
+      private final int to;
+      
+      /** The total number of samples. */
+      private final long count;
+      
+      /** The sink of the samples. */
+      private final ObjLongConsumer<? super Partition> sink;
+      
+      /**
+       * Constructs an action that draws the samples of the specified range of
+       * chunks.
+       * 
+       * @param randoms   the random number generators of all of the chunks
+       * @param from      the first chunk of the range
+       * @param to        the chunk after the last chunk of the range
+       * @param count     the total number of samples
+       * @param sink      the sink of the samples
+       */
+      private ChunkAction(SplittableRandom[] randoms, int from, int to,
+         long count, ObjLongConsumer<? super Partition> sink)
+      {
+         this.randoms = randoms;
+         this.from = from;
+         this.to = to;
+         this.count = count;
+         this.sink = sink;
+      }
+      
+      @Override
+      protected void compute()
+      {
+         // Splits the range in half until it has a single chunk.
+         if (to - from > 1)
+         {
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkAction(randoms, from, middle, count, sink),
+               new ChunkAction(randoms, middle, to, count, sink));
+            return;
+         }
+         
+         Supplier<Partition> sampler = factory.apply(randoms[from]);
+         long first = (long) from * CHUNK_SIZE;
+         long last = Math.min(first + CHUNK_SIZE, count);
+         
+         for (long k = first; k < last; k++) sink.accept(sampler.get(), k);
+      }
+   }
+}
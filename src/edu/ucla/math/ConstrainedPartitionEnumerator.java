@@ -0,0 +1,451 @@
+package edu.ucla.math;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * An enumerator of the partitions of a positive integer <i>n</i> that satisfy
+ * a set of {@link PartitionConstraints}, in reverse lexicographic order. The
+ * constraints are enforced while the partitions are generated rather than by
+ * filtering them afterwards: the enumerator only ever appends a part if the
+ * rest of <i>n</i> can still be completed into a partition that satisfies the
+ * constraints, so it never visits a partition, or a prefix of one, that is
+ * later thrown away. For example, enumerating the partitions of <i>n</i> into
+ * distinct odd parts takes time proportional to their number rather than to
+ * the number <i>p</i>(<i>n</i>) of all of the partitions of <i>n</i>.
+ * <p>
+ * Whether a rest can be completed is looked up in a table of the smallest
+ * numbers of parts into which each integer up to <i>n</i> can be split using
+ * the smallest allowed parts, which is computed when the enumerator is
+ * constructed in O(<i>n</i><i>a</i>) time for <i>a</i> allowed parts. As with
+ * {@link PartitionEnumerator}, the enumerator is itself a read-only
+ * {@link PartitionView} of the current partition whose statistics are updated
+ * from the first changed part on.
+ * 
+ * @author Kris Torres
+ */
+public final class ConstrainedPartitionEnumerator implements PartitionView
+{
+   /** The integer whose partitions are enumerated. */
+   private final int n;
+   
+   /** The allowed parts in increasing order. */
+   private final int[] values;
+   
+   /** Whether the parts are distinct. */
+   private final boolean distinct;
+   
+   /** The largest allowed number of parts. */
+   private final int maxParts;
+   
+   /** Whether there is no partition that satisfies the constraints. */
+   private final boolean empty;
+   
+   /**
+    * The number of allowed parts up to each integer, where
+    * <code>counts[r]</code> is the number of allowed parts ≤ <i>r</i>.
+    */
+   private final int[] counts;
+   
+   /**
+    * The smallest numbers of parts into which each integer up to <i>n</i> can
+    * be split using the <i>i</i> smallest allowed parts, where the entry at
+    * <code>i * (n + 1) + r</code> is the number for the integer <i>r</i>, or
+    * <code>Integer.MAX_VALUE</code> if there is no such split.
+    */
+   private final int[] minParts;
+   
+   /**
+    * The parts of the current partition in decreasing order. Every element
+    * after the last part larger than the smallest allowed part is the
+    * smallest allowed part.
+    */
+   private final int[] parts;
+   
+   /** The index of each part of the current partition among the values. */
+   private final int[] indices;
+   
+   /** The number of parts in the current partition. */
+   private int size;
+   
+   /**
+    * The index of the last part in the current partition that is larger than
+    * the smallest allowed part, or −1 if there is none.
+    */
+   private int last;
+   
+   /** The Durfee rank of the current partition. */
+   private int durfee;
+   
+   /** The index of the first part changed by the last step. */
+   private int changed;
+   
+   /** Whether the enumeration has started. */
+   private boolean started;
+   
+   /**
+    * Constructs an enumerator of the partitions of the specified positive
+    * integer that satisfy the specified constraints. The enumerator starts
+    * before the first partition. Later changes to the constraints do not
+    * affect the enumerator.
+    * 
+    * @param n             the positive integer
+    * @param constraints   the constraints
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the constraints are <code>null</code>
+    */
+   public ConstrainedPartitionEnumerator(int n,
+      PartitionConstraints constraints)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given constraints are not null.
+      if (constraints == null)
+         throw new NullPointerException("Constraints are null.");
+      
+      this.n = n;
+      this.values = constraints.allowedParts(n);
+      this.distinct = constraints.distinct();
+      this.maxParts = constraints.maxParts();
+      this.counts = new int[n + 1];
+      this.minParts = new int[(values.length + 1) * (n + 1)];
+      
+      for (int r = 1, i = 0; r <= n; r++)
+      {
+         while (i < values.length && values[i] <= r) i++;
+         counts[r] = i;
+      }
+      
+      // Only 0 can be split without parts.
+      Arrays.fill(minParts, 1, n + 1, Integer.MAX_VALUE);
+      
+      for (int i = 1; i <= values.length; i++)
+      {
+         int row = i * (n + 1);
+         int from = (distinct ? i - 1 : i) * (n + 1) - values[i - 1];
+         
+         for (int r = 0; r <= n; r++)
+         {
+            // Splits r either without the i-th smallest part or with it.
+            int without = minParts[row - (n + 1) + r];
+            int with = r < values[i - 1] ? Integer.MAX_VALUE
+               : minParts[from + r];
+            if (with != Integer.MAX_VALUE) with++;
+            
+            minParts[row + r] = Math.min(without, with);
+         }
+      }
+      
+      // Tests if n can be split at all, and into few enough parts.
+      int fewest = minParts[values.length * (n + 1) + n];
+      this.empty = fewest == Integer.MAX_VALUE || fewest > maxParts;
+      this.parts = new int[empty ? 0 : n / values[0]];
+      this.indices = new int[parts.length];
+      
+      if (!empty)
+      {
+         Arrays.fill(parts, values[0]);
+         fill(0, n, largest(0, values.length, n));
+      }
+      
+      updateDurfeeRank();
+   }
+   
+   /**
+    * Constructs an enumerator of the partitions of the weight of the
+    * specified partition that satisfy the specified constraints, starting
+    * with that partition and going on in reverse lexicographic order. The
+    * enumerator starts before the partition.
+    * 
+    * @param first         the first partition
+    * @param constraints   the constraints
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts, or
+    *         if it does not satisfy the constraints
+    * @throws NullPointerException if the partition or the constraints are
+    *         <code>null</code>
+    */
+   public ConstrainedPartitionEnumerator(Partition first,
+      PartitionConstraints constraints)
+   {
+      this(PartitionEnumerator.weightOf(first), constraints);
+      
+      int k = first.numberOfParts();
+      
+      // Tests if the partition has few enough parts.
+      if (empty || k > maxParts)
+         throw new IllegalArgumentException("Illegal partition: " + first);
+      
+      Arrays.fill(parts, values[0]);
+      last = -1;
+      
+      for (size = 0; size < k; size++)
+      {
+         int i = Arrays.binarySearch(values, first.part(size));
+         
+         // Tests if the part is allowed, and distinct if it must be.
+         if (i < 0 || distinct && size > 0 && indices[size - 1] == i)
+            throw new IllegalArgumentException("Illegal partition: " + first);
+         
+         parts[size] = values[i];
+         indices[size] = i;
+         if (i > 0) last = size;
+      }
+      
+      updateDurfeeRank();
+   }
+   
+   @Override
+   public int crank()
+   {
+      // The crank of an "empty" partition is undefined!
+      if (!started) throw new RuntimeException("No such crank exists.");
+      
+      // The 1s, if any, follow the last part larger than the smallest part.
+      int ω = values[0] == 1 ? size - 1 - last : 0;
+      if (ω == 0) return parts[0];
+      
+      int low = 0;
+      int high = last + 1;
+      
+      // Binary searches the first part ≤ ω, since the parts larger than ω
+      // precede all of the other parts.
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (parts[mid] > ω) low = mid + 1;
+         else high = mid;
+      }
+      
+      return low - ω;
+   }
+   
+   @Override
+   public int durfeeRank()
+   {
+      // The Durfee rank of an "empty" partition is undefined!
+      if (!started) throw new RuntimeException("No such Durfee rank exists.");
+      
+      return durfee;
+   }
+   
+   /**
+    * Tests if the specified rest of <i>n</i> can be split into at most the
+    * specified number of parts, using the specified number of smallest
+    * allowed parts.
+    * 
+    * @param i      the number of smallest allowed parts
+    * @param rest   the rest of <i>n</i>
+    * @param left   the largest number of parts
+    * 
+    * @return <code>true</code> if the rest can be split, or
+    *         <code>false</code> otherwise
+    */
+   private boolean feasible(int i, int rest, int left)
+   {
+      return minParts[i * (n + 1) + rest] <= left;
+   }
+   
+   /**
+    * Writes the parts from the specified index on, starting with the
+    * specified allowed part and continuing with the largest allowed part that
+    * leaves a feasible rest, until only copies of the smallest allowed part
+    * are left.
+    * 
+    * @param p      the index of the first part to be written
+    * @param rest   the sum of the parts to be written
+    * @param i      the index of the first part among the values
+    */
+   private void fill(int p, int rest, int i)
+   {
+      last = p - 1;
+      
+      while (i > 0)
+      {
+         parts[p] = values[i];
+         indices[p] = i;
+         rest -= values[i];
+         last = p++;
+         i = rest == 0 ? 0 : largest(p, distinct ? i : i + 1, rest);
+      }
+      
+      // The rest is made up of copies of the smallest allowed part, which
+      // are already in place.
+      size = p + rest / values[0];
+   }
+   
+   @Override
+   public int firstChangedIndex() { return changed; }
+   
+   /**
+    * Passes the view of each of the remaining partitions to the specified
+    * visitor, in reverse lexicographic order. The view is only valid during
+    * the call to the visitor.
+    * 
+    * @param visitor   the visitor
+    * 
+    * @throws NullPointerException if the visitor is <code>null</code>
+    */
+   public void forEachRemaining(Consumer<? super PartitionView> visitor)
+   {
+      // Tests if the given visitor is not null.
+      if (visitor == null) throw new NullPointerException("Visitor is null.");
+      
+      while (next()) visitor.accept(this);
+   }
+   
+   /**
+    * Returns the index among the values of the largest allowed part at the
+    * specified index that leaves a feasible rest, among the specified number
+    * of smallest allowed parts.
+    * 
+    * @param p       the index of the part
+    * @param limit   the number of smallest allowed parts to choose from
+    * @param rest    the sum of the part and the parts after it
+    * 
+    * @return the index of the part among the values, or −1 if there is none
+    */
+   private int largest(int p, int limit, int rest)
+   {
+      for (int i = Math.min(limit, counts[rest]) - 1; i >= 0; i--)
+      {
+         if (feasible(distinct ? i : i + 1, rest - values[i],
+            maxParts - p - 1))
+         {
+            return i;
+         }
+      }
+      
+      return -1;
+   }
+   
+   @Override
+   public int largestPart()
+   {
+      // Tests if the enumeration has started.
+      if (!started)
+         throw new NoSuchElementException("No such largest part exists.");
+      
+      return parts[0];
+   }
+   
+   @Override
+   public int multiplicity(int part)
+   {
+      int low = 0;
+      int high = numberOfParts();
+      
+      // Binary searches the first part ≤ the given part.
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (parts[mid] > part) low = mid + 1;
+         else high = mid;
+      }
+      
+      int count = 0;
+      
+      // Counts the run of parts equal to the given part.
+      for (int i = low; i < high && parts[i] == part; i++) count++;
+      
+      return count;
+   }
+   
+   /**
+    * Moves on to the next partition in reverse lexicographic order.
+    * 
+    * @return <code>true</code> if there is a next partition, or
+    *         <code>false</code> if the enumeration is over
+    */
+   public boolean next()
+   {
+      if (!started)
+      {
+         started = !empty;
+         return started;
+      }
+      
+      // The copies of the smallest allowed part can never be lowered.
+      int rest = (size - 1 - last) * values[0];
+      
+      // Backs up to the last part that can be lowered to an allowed part that
+      // leaves a feasible rest.
+      for (int p = last; p >= 0; p--)
+      {
+         rest += parts[p];
+         
+         int i = largest(p, indices[p], rest);
+         if (i < 0) continue;
+         
+         for (int q = p + 1; q <= last; q++) parts[q] = values[0];
+         parts[p] = values[0];
+         
+         changed = p;
+         fill(p, rest, i);
+         updateDurfeeRank();
+         return true;
+      }
+      
+      return false;
+   }
+   
+   @Override
+   public int numberOfParts() { return started ? size : 0; }
+   
+   @Override
+   public int part(int k)
+   {
+      // Tests if k is valid.
+      if (k < 0 || k >= numberOfParts())
+         throw new IndexOutOfBoundsException("Illegal part index: " + k);
+      
+      return parts[k];
+   }
+   
+   @Override
+   public int rank()
+   {
+      // The rank of an "empty" partition is undefined!
+      if (!started) throw new RuntimeException("No such rank exists.");
+      
+      return parts[0] - size;
+   }
+   
+   @Override
+   public int smallestPart()
+   {
+      // Tests if the enumeration has started.
+      if (!started)
+         throw new NoSuchElementException("No such smallest part exists.");
+      
+      return parts[size - 1];
+   }
+   
+   @Override
+   public Partition toPartition()
+   {
+      int k = numberOfParts();
+      return new Partition(Arrays.copyOf(parts, Math.max(k, 1)), k);
+   }
+   
+   /**
+    * Updates the Durfee rank after the parts from the first changed part on
+    * have been rewritten, which can only change it if the first changed part
+    * is within the Durfee square.
+    */
+   private void updateDurfeeRank()
+   {
+      if (changed > durfee) return;
+      
+      int k = changed;
+      while (k < size && parts[k] > k) k++;
+      
+      durfee = k;
+   }
+   
+   @Override
+   public int weight() { return started ? n : 0; }
+}
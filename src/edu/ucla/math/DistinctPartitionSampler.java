@@ -0,0 +1,372 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * A sampler of random partitions of a fixed positive integer <i>n</i> into
+ * distinct parts of a given kind. No sample is ever rejected for repeating a
+ * part.
+ * <p>
+ * Random partitions whose weights are at least <i>n</i> are drawn from the
+ * Boltzmann model of partitions into distinct parts, in which every allowed
+ * part <i>i</i> appears independently with the probability
+ * <i>x<sup>i</sup></i> / (1 + <i>x<sup>i</sup></i>). The parameter
+ * <i>x</i> = <i>e</i><sup>−<i>t</i></sup> is chosen so that the expected
+ * weight is about <i>n</i>, and samples are drawn until the weight is at least
+ * <i>n</i>.
+ * <p>
+ * Uniformly random partitions of exactly <i>n</i> are drawn from a table of
+ * counts of partitions into at most <i>k</i> parts. Subtracting the staircase
+ * (<i>k</i>, <i>k</i> − 1, …, 1) from a partition into <i>k</i> distinct
+ * parts leaves a partition into at most <i>k</i> parts, and so does
+ * subtracting (2<i>k</i> − 1, 2<i>k</i> − 3, …, 1) from a partition into
+ * <i>k</i> distinct odd parts and halving the result. Beyond a few thousand,
+ * the table grows too large, and the sampler waits for a Boltzmann sample of
+ * weight exactly <i>n</i> instead.
+ * <p>
+ * A sampler is not thread-safe; each thread should use its own sampler.
+ * 
+ * @author Kris Torres
+ */
+public final class DistinctPartitionSampler
+{
+   /**
+    * The largest weight for which uniformly random partitions are drawn from a
+    * table of counts.
+    */
+   private static final int MAX_TABULATED_WEIGHT = 2000;
+   
+   /** The scale of a random 53-bit integer to a double in [0, 1). */
+   private static final double DOUBLE_UNIT = 0x1.0p-53;
+   
+   /** The weight of the sampled partitions. */
+   private final int n;
+   
+   /** The kind of parts in the sampled partitions. */
+   private final PartType type;
+   
+   /** The source of random 64-bit integers. */
+   private final LongSupplier random;
+   
+   /** The negated natural logarithm <i>t</i> of the Boltzmann parameter. */
+   private final double t;
+   
+   /** The builder into which the parts of each sample are appended. */
+   private final PartitionBuilder builder = new PartitionBuilder();
+   
+   /** The metrics to which the cost of each sample is reported. */
+   private SamplerMetrics metrics = SamplerMetrics.NONE;
+   
+   /**
+    * Constructs a sampler of random partitions of the specified positive
+    * integer into distinct parts.
+    * 
+    * @param n   the positive integer
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public DistinctPartitionSampler(int n) { this(n, PartType.ALL); }
+   
+   /**
+    * Constructs a sampler of random partitions of the specified positive
+    * integer into distinct parts of the specified kind.
+    * 
+    * @param n      the positive integer
+    * @param type   the kind of parts
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the kind of parts is <code>null</code>
+    */
+   public DistinctPartitionSampler(int n, PartType type)
+   {
+      this(n, type, new SplittableRandom());
+   }
+   
+   /**
+    * Constructs a sampler of random partitions of the specified positive
+    * integer into distinct parts of the specified kind, using the specified
+    * random number generator.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the random number generator
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the kind of parts is <code>null</code>,
+    *         or if the random number generator is <code>null</code>
+    */
+   public DistinctPartitionSampler(int n, PartType type, Random random)
+   {
+      this(n, type, RandomSources.longSource(random));
+   }
+   
+   /**
+    * Constructs a sampler of random partitions of the specified positive
+    * integer into distinct parts of the specified kind, using the specified
+    * random number generator.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the random number generator
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the kind of parts is <code>null</code>,
+    *         or if the random number generator is <code>null</code>
+    */
+   public DistinctPartitionSampler(int n, PartType type,
+      SplittableRandom random)
+   {
+      this(n, type, RandomSources.longSource(random));
+   }
+   
+   /**
+    * Constructs a sampler of random partitions of the specified positive
+    * integer into distinct parts of the specified kind, using the specified
+    * source of random 64-bit integers.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the source of random integers
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the kind of parts is <code>null</code>
+    */
+   private DistinctPartitionSampler(int n, PartType type, LongSupplier random)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given kind of parts is not null.
+      if (type == null) throw new NullPointerException("Part type is null.");
+      
+      this.n = n;
+      this.type = type;
+      this.random = random;
+      
+      // The expected weight of the Boltzmann model is about π²/(12t²) for all
+      // parts and π²/(24t²) for even or odd parts.
+      double c = type == PartType.ALL ? 12.0 : 24.0;
+      this.t = Math.PI / Math.sqrt(c * n);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified integer into the
+    * specified number of distinct parts of the kind of this sampler, where the
+    * integer is halved beforehand for even parts.
+    * 
+    * @param m   the integer, or half of the weight for even parts
+    * @param k   the number of parts
+    * 
+    * @return the number of partitions
+    */
+   private BigInteger count(int m, int k)
+   {
+      int r = m - staircase(k);
+      
+      // Subtracting 1, 3, …, 2k − 1 from odd parts leaves even parts.
+      if (type == PartType.ODD)
+      {
+         if (r % 2 != 0) return BigInteger.ZERO;
+         r /= 2;
+      }
+      
+      return RestrictedPartitionCounts.countWithPartsAtMost(r, k);
+   }
+   
+   /**
+    * Draws a Boltzmann sample of distinct allowed parts into the builder of
+    * this sampler. Since the probabilities of the parts decrease, the sampler
+    * jumps from one candidate part to the next: every part <i>j</i> ≥ <i>i</i>
+    * is a candidate with the probability of <i>i</i>, and a candidate appears
+    * with the ratio of the probabilities of <i>j</i> and <i>i</i>.
+    * 
+    * @param limit   the maximum weight of the sample
+    * 
+    * @return <code>true</code> if the weight of the sample is at most the
+    *         limit, or <code>false</code> otherwise
+    */
+   private boolean draw(int limit)
+   {
+      builder.clear();
+      int step = type.step();
+      
+      for (int i = type.first(); ; i += step)
+      {
+         double q = probability(i);
+         double u = 1.0 - nextDouble();
+         double skip = Math.floor(Math.log(u) / Math.log1p(-q));
+         
+         // None of the larger parts appears.
+         if (!(skip < (Integer.MAX_VALUE - i) / step)) return true;
+         
+         i += (int) skip * step;
+         
+         if (nextDouble() * q < probability(i))
+         {
+            // The weight would exceed the limit!
+            if (i > limit - builder.weight()) return false;
+            
+            builder.append(i);
+         }
+      }
+   }
+   
+   /**
+    * Returns a random double uniformly distributed in [0, 1).
+    * 
+    * @return the random double
+    */
+   private double nextDouble()
+   {
+      return (random.getAsLong() >>> 11) * DOUBLE_UNIT;
+   }
+   
+   /**
+    * Returns the probability <i>x<sup>i</sup></i> / (1 + <i>x<sup>i</sup></i>)
+    * that the specified part appears in a Boltzmann sample.
+    * 
+    * @param i   the part
+    * 
+    * @return the probability of the part
+    */
+   private double probability(int i) { return 1.0 / (1.0 + Math.exp(t * i)); }
+   
+   /**
+    * Returns a random partition into distinct parts of the kind of this sampler
+    * such that the sum of its parts is at least the positive integer of this
+    * sampler.
+    * 
+    * @return a random partition into distinct parts
+    */
+   public Partition sample()
+   {
+      // Keeps on drawing until the weight is large enough.
+      do { draw(Integer.MAX_VALUE); }
+      while (builder.weight() < n);
+      
+      return builder.build();
+   }
+   
+   /**
+    * Returns a uniformly random partition into distinct parts of the kind of
+    * this sampler such that the sum of its parts is exactly the positive
+    * integer of this sampler.
+    * 
+    * @return a random partition into distinct parts
+    * 
+    * @throws NoSuchElementException if the positive integer of this sampler
+    *         has no partition into distinct parts of the kind of this sampler
+    */
+   public Partition sampleExactly()
+   {
+      // Tests if n has a partition into distinct allowed parts.
+      if (n % type.first() != 0 || type == PartType.ODD && n == 2)
+      {
+         String kind = type.name().toLowerCase();
+         throw new NoSuchElementException("No partition of " + n
+            + " into distinct " + kind + " parts exists.");
+      }
+      
+      long start = System.nanoTime();
+      
+      if (n > MAX_TABULATED_WEIGHT)
+      {
+         long attempts = 1;
+         
+         // Keeps on drawing until the weight is exactly n.
+         while (!draw(n) || builder.weight() != n) attempts++;
+         
+         metrics.record(attempts, System.nanoTime() - start);
+         return builder.build();
+      }
+      
+      // A partition into distinct even parts is twice a partition into
+      // distinct parts.
+      int m = type == PartType.EVEN ? n / 2 : n;
+      BigInteger total = BigInteger.ZERO;
+      
+      for (int k = 1; staircase(k) <= m; k++) total = total.add(count(m, k));
+      
+      // Picks the number of parts k with probability proportional to the
+      // number of partitions into k parts.
+      BigInteger z = RandomSources.nextBigInteger(random, total);
+      int k = 1;
+      
+      for (; z.compareTo(count(m, k)) >= 0; k++) z = z.subtract(count(m, k));
+      
+      // Draws a partition of r into parts ≤ k by deciding, for each part j
+      // from k down to 1, whether to take one more copy of j. Its columns form
+      // a partition μ into at most k parts.
+      int r = type == PartType.ODD ? (m - k * k) / 2 : m - staircase(k);
+      int[] copies = new int[k + 1];
+      
+      for (int j = Math.min(k, r); r > 0; )
+      {
+         BigInteger without =
+            RestrictedPartitionCounts.countWithPartsAtMost(r, j - 1);
+         
+         if (z.compareTo(without) < 0)
+         {
+            j--;
+         }
+         else
+         {
+            z = z.subtract(without);
+            copies[j]++;
+            r -= j;
+         }
+      }
+      
+      builder.clear();
+      
+      // Adds the staircase back to μ, from its smallest part μ_k up to μ_1.
+      for (int i = k, height = 0; i >= 1; i--)
+      {
+         height += copies[i];
+         
+         if (type == PartType.ODD)
+            builder.append(2 * (height + k - i) + 1);
+         else if (type == PartType.EVEN)
+            builder.append(2 * (height + k - i + 1));
+         else
+            builder.append(height + k - i + 1);
+      }
+      
+      metrics.record(1, System.nanoTime() - start);
+      return builder.build();
+   }
+   
+   /**
+    * Sets the metrics to which this sampler reports the number of attempts and
+    * the time taken by each sample.
+    * 
+    * @param metrics   the metrics
+    * 
+    * @throws NullPointerException if the metrics are <code>null</code>
+    */
+   public void setMetrics(SamplerMetrics metrics)
+   {
+      // Tests if the given metrics are not null.
+      if (metrics == null) throw new NullPointerException("Metrics are null.");
+      
+      this.metrics = metrics;
+   }
+   
+   /**
+    * Returns the weight of the smallest partition into the specified number of
+    * distinct parts of the kind of this sampler, where the weight is halved
+    * for even parts.
+    * 
+    * @param k   the number of parts
+    * 
+    * @return <i>k</i>² for odd parts, or <i>k</i>(<i>k</i> + 1)/2 otherwise
+    */
+   private int staircase(int k)
+   {
+      return type == PartType.ODD ? k * k : k * (k + 1) / 2;
+   }
+}
@@ -0,0 +1,398 @@
+package edu.ucla.math;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A sampler of uniformly random partitions of a fixed positive integer
+ * <i>n</i> into a given kind of parts, by the probabilistic divide-and-conquer
+ * method of Arratia and DeSalvo (<i>Probabilistic divide-and-conquer: a new
+ * exact simulation method, with integer partitions as an example</i>, 2016).
+ * <p>
+ * The multiplicities of the allowed parts other than the smallest one,
+ * <i>s</i>, are drawn independently from the geometric laws of the Boltzmann
+ * model with the parameter <i>x</i> = <i>e</i><sup>−<i>c</i>/√<i>n</i></sup>.
+ * The remainder <i>r</i> is then filled exactly with <i>r</i>/<i>s</i> copies
+ * of <i>s</i>, and the sample is accepted with the probability
+ * <i>x<sup>r</sup></i>. Accepted samples are exactly uniform, and an attempt
+ * succeeds with probability of order <i>n</i><sup>−1/4</sup>, compared with
+ * <i>n</i><sup>−3/4</sup> for waiting until a Boltzmann sample has weight
+ * <i>n</i>. The large parts, most of which do not appear, are skipped over
+ * geometrically rather than drawn one by one.
+ * <p>
+ * By default, <i>c</i> is π/√6 for all parts and π/√12 for even or odd parts,
+ * so that the expected weight is asymptotically <i>n</i>. In adaptive mode,
+ * <i>x</i> is instead tuned numerically to maximize the acceptance
+ * probability <i>p</i>(<i>n</i>) <i>x<sup>n</sup></i> Π (1 −
+ * <i>x<sup>i</sup></i>), where the product is over the allowed parts
+ * <i>i</i> > <i>s</i>, which is largest when the expected weight of those
+ * parts is exactly <i>n</i>.
+ * <p>
+ * No table of counts is needed, so the memory used is proportional to the
+ * number of parts of a sample. A sampler is not thread-safe; each thread should
+ * use its own sampler.
+ * 
+ * @author Kris Torres
+ */
+public final class DivideAndConquerSampler
+{
+   /** The relative precision at which series are truncated. */
+   private static final double EPSILON = 1e-17;
+   
+   /** The initial number of distinct parts that an attempt can hold. */
+   private static final int DEFAULT_CAPACITY = 64;
+   
+   /** The maximum number of Newton iterations of the adaptive mode. */
+   private static final int MAX_ITERATIONS = 100;
+   
+   /** The weight of the sampled partitions. */
+   private final int n;
+   
+   /** The kind of parts in the sampled partitions. */
+   private final PartType type;
+   
+   /** The source of random numbers uniformly distributed in [0, 1). */
+   private final DoubleSupplier random;
+   
+   /** The natural logarithm of the Boltzmann parameter <i>x</i>. */
+   private double logX;
+   
+   /**
+    * The smallest part <i>i</i> for which <i>x<sup>i</sup></i> ≤ 1/2. Most of
+    * the parts ≥ <i>i</i> do not appear in a sample.
+    */
+   private int sparse;
+   
+   /** The metrics to which the cost of each sample is reported. */
+   private SamplerMetrics metrics = SamplerMetrics.NONE;
+   
+   /** The parts other than the smallest one drawn in the current attempt. */
+   private int[] parts = new int[DEFAULT_CAPACITY];
+   
+   /** The multiplicities of the parts drawn in the current attempt. */
+   private int[] counts = new int[DEFAULT_CAPACITY];
+   
+   /** The number of distinct parts drawn in the current attempt. */
+   private int distinct;
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer.
+    * 
+    * @param n   the positive integer
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public DivideAndConquerSampler(int n) { this(n, PartType.ALL); }
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer into the specified kind of parts.
+    * 
+    * @param n      the positive integer
+    * @param type   the kind of parts
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if <i>n</i> is odd
+    *         and the parts are even
+    * @throws NullPointerException if the kind of parts is <code>null</code>
+    */
+   public DivideAndConquerSampler(int n, PartType type)
+   {
+      this(n, type, new SplittableRandom());
+   }
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer into the specified kind of parts, using the specified
+    * random number generator.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the random number generator
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if <i>n</i> is odd
+    *         and the parts are even
+    * @throws NullPointerException if the kind of parts is <code>null</code>,
+    *         or if the random number generator is <code>null</code>
+    */
+   public DivideAndConquerSampler(int n, PartType type, Random random)
+   {
+      this(n, type, RandomSources.doubleSource(random));
+   }
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer into the specified kind of parts, using the specified
+    * random number generator.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the random number generator
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if <i>n</i> is odd
+    *         and the parts are even
+    * @throws NullPointerException if the kind of parts is <code>null</code>,
+    *         or if the random number generator is <code>null</code>
+    */
+   public DivideAndConquerSampler(int n, PartType type, SplittableRandom random)
+   {
+      this(n, type, RandomSources.doubleSource(random));
+   }
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer into the specified kind of parts, using the specified
+    * source of uniformly distributed random numbers.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the source of random numbers in [0, 1)
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if <i>n</i> is odd
+    *         and the parts are even
+    * @throws NullPointerException if the kind of parts is <code>null</code>
+    */
+   private DivideAndConquerSampler(int n, PartType type, DoubleSupplier random)
+   {
+      // Tests if the given kind of parts is not null.
+      if (type == null) throw new NullPointerException("Part type is null.");
+      
+      // Tests if n is positive and, for even parts, even.
+      if (n < 1 || n % type.first() != 0)
+      {
+         String kind = type == PartType.EVEN ? "even weight" : "weight";
+         throw new IllegalArgumentException("Illegal " + kind + ": " + n);
+      }
+      
+      this.n = n;
+      this.type = type;
+      this.random = random;
+      setAdaptive(false);
+   }
+   
+   /**
+    * Returns the natural logarithm of the probability that none of the allowed
+    * parts ≥ <i>i</i> appears in a Boltzmann sample, that is, of the product
+    * of 1 − <i>x<sup>j</sup></i> over all allowed parts <i>j</i> ≥ <i>i</i>.
+    * Expanding the logarithms into power series gives
+    * −Σ <i>x<sup>im</sup></i> / (<i>m</i>(1 − <i>x<sup>m·step</sup></i>)),
+    * which converges quickly because <i>x<sup>i</sup></i> is small.
+    * 
+    * @param i   the smallest allowed part
+    * 
+    * @return the logarithm of the probability
+    */
+   private double logProbabilityOfNone(int i)
+   {
+      double sum = 0.0;
+      
+      for (int m = 1; ; m++)
+      {
+         double term = Math.exp(logX * i * m)
+            / (m * -Math.expm1(logX * type.step() * m));
+         sum -= term;
+         if (term <= EPSILON * -sum || term == 0.0) return sum;
+      }
+   }
+   
+   /**
+    * Records the specified multiplicity of the specified part in the current
+    * attempt.
+    * 
+    * @param part    the part
+    * @param count   the multiplicity of the part
+    * @param r       the remainder of <i>n</i> before the part is recorded
+    * 
+    * @return the remainder after the part is recorded, or −1 if the weight
+    *         would exceed <i>n</i>
+    */
+   private int record(int part, double count, int r)
+   {
+      // The weight would exceed n!
+      if (count * part > r) return -1;
+      
+      if (count > 0)
+      {
+         if (distinct == parts.length)
+         {
+            parts = Arrays.copyOf(parts, distinct * 2);
+            counts = Arrays.copyOf(counts, distinct * 2);
+         }
+         
+         parts[distinct] = part;
+         counts[distinct] = (int) count;
+         distinct++;
+      }
+      
+      return r - part * (int) count;
+   }
+   
+   /**
+    * Returns the value of <i>t</i> > 0 for which the expected weight of the
+    * allowed parts <i>i</i> > <i>s</i> in the Boltzmann model with the
+    * parameter <i>x</i> = <i>e</i><sup>−<i>t</i></sup>, that is,
+    * Σ <i>i</i> <i>x<sup>i</sup></i> / (1 − <i>x<sup>i</sup></i>), is
+    * exactly <i>n</i>. The expected weight is a convex decreasing function of
+    * <i>t</i>, so Newton's method converges monotonically once it is on the
+    * left of the root.
+    * 
+    * @param t   the initial guess
+    * 
+    * @return the root
+    */
+   private double saddlePoint(double t)
+   {
+      int step = type.step();
+      
+      for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+      {
+         double mean = 0.0;
+         double variance = 0.0;
+         double ratio = Math.exp(-t * step);
+         double power = Math.exp(-t * (type.first() + step));
+         
+         // Adds the terms until x^i < e^(−40), which is negligible.
+         for (int i = type.first() + step; i * t <= 40.0; i += step)
+         {
+            double z = power / (1.0 - power);
+            mean += i * z;
+            variance += (double) i * i * z * (1.0 + z);
+            power *= ratio;
+         }
+         
+         // The derivative of the expected weight is −variance.
+         double next = t + (mean - n) / variance;
+         if (next <= 0.0) next = t / 2;
+         if (Math.abs(next - t) <= 1e-12 * t) return next;
+         t = next;
+      }
+      
+      return t;
+   }
+   
+   /**
+    * Returns a uniformly random partition of the positive integer of this
+    * sampler into the kind of parts of this sampler.
+    * 
+    * @return a random partition
+    */
+   public Partition sample()
+   {
+      long start = System.nanoTime();
+      long attempts = 0;
+      Partition p;
+      
+      // Keeps on trying until an attempt is accepted.
+      do { p = tryToSample(); attempts++; }
+      while (p == null);
+      
+      metrics.record(attempts, System.nanoTime() - start);
+      return p;
+   }
+   
+   /**
+    * Sets whether this sampler tunes its Boltzmann parameter to maximize the
+    * acceptance probability. Tuning takes time proportional to √<i>n</i>, and
+    * it is done once per call.
+    * 
+    * @param adaptive   <code>true</code> to tune the parameter numerically, or
+    *                   <code>false</code> to use its asymptotic value
+    */
+   public void setAdaptive(boolean adaptive)
+   {
+      // The expected weight of the Boltzmann model is about π²/(6t²) for all
+      // parts and π²/(12t²) for even or odd parts, where x = e^(−t).
+      double c = type == PartType.ALL ? 6.0 : 12.0;
+      double t = Math.PI / Math.sqrt(c * n);
+      if (adaptive) t = saddlePoint(t);
+      
+      logX = -t;
+      sparse = (int) Math.min(Math.ceil(Math.log(0.5) / logX), n + 1.0);
+   }
+   
+   /**
+    * Sets the metrics to which this sampler reports the number of attempts and
+    * the time taken by each sample.
+    * 
+    * @param metrics   the metrics
+    * 
+    * @throws NullPointerException if the metrics are <code>null</code>
+    */
+   public void setMetrics(SamplerMetrics metrics)
+   {
+      // Tests if the given metrics are not null.
+      if (metrics == null) throw new NullPointerException("Metrics are null.");
+      
+      this.metrics = metrics;
+   }
+   
+   /**
+    * Makes one attempt to draw a uniformly random partition.
+    * 
+    * @return the random partition, or <code>null</code> if the attempt is
+    *         rejected
+    */
+   private Partition tryToSample()
+   {
+      int s = type.first();
+      int step = type.step();
+      int r = n;
+      int i = s + step;
+      distinct = 0;
+      
+      // Draws the multiplicities of the allowed parts i > s while i ≤ r,
+      // where P(Z ≥ j) = x^(ij).
+      for (; i <= r; i += step)
+      {
+         double u = 1.0 - random.getAsDouble();
+         
+         if (i < sparse)
+         {
+            r = record(i, Math.floor(Math.log(u) / (logX * i)), r);
+         }
+         else
+         {
+            // Most of the larger parts do not appear, so the sampler jumps to
+            // the next candidate. Every part j ≥ i is a candidate with
+            // probability x^i, and a candidate appears with probability
+            // x^(j − i).
+            double q = Math.exp(logX * i);
+            double skip = Math.floor(Math.log(u) / Math.log1p(-q));
+            
+            // None of the parts ≤ r appears.
+            if (skip > (r - i) / step)
+            {
+               i += ((r - i) / step + 1) * step;
+               break;
+            }
+            
+            i += (int) skip * step;
+            
+            if (1.0 - random.getAsDouble() <= Math.exp(logX * i) / q)
+            {
+               // An appearing part has a multiplicity of 1 + geometric.
+               u = 1.0 - random.getAsDouble();
+               r = record(i, 1 + Math.floor(Math.log(u) / (logX * i)), r);
+            }
+         }
+         
+         if (r < 0) return null;
+      }
+      
+      // Any part ≥ i would make the weight exceed n.
+      double u = 1.0 - random.getAsDouble();
+      if (Math.log(u) > logProbabilityOfNone(i)) return null;
+      
+      // Fills the remainder with the smallest part with probability x^r.
+      u = 1.0 - random.getAsDouble();
+      if (Math.log(u) > logX * r) return null;
+      
+      PartitionBuilder p = new PartitionBuilder();
+      p.append(s, r / s);
+      for (int d = 0; d < distinct; d++) p.append(parts[d], counts[d]);
+      
+      return p.build();
+   }
+}
@@ -0,0 +1,139 @@
+package edu.ucla.math;
+
+import java.util.Arrays;
+
+/**
+ * Glaisher's bijection between the partitions of <i>n</i> into odd parts and
+ * the partitions of <i>n</i> into distinct parts, in its binary form. An odd
+ * part <i>a</i> of multiplicity <i>m</i> is split into the distinct parts
+ * <i>a</i>·2<sup><i>j</i></sup> for the bits 2<sup><i>j</i></sup> of
+ * <i>m</i>, and conversely a distinct part <i>a</i>·2<sup><i>j</i></sup>
+ * with <i>a</i> odd is split into 2<sup><i>j</i></sup> copies of <i>a</i>,
+ * whose multiplicities add up over the parts. Both directions
+ * work on the multiplicity notation with bit operations, so they take
+ * O(<i>d</i> log <i>n</i> · log(<i>d</i> log <i>n</i>)) time, where <i>d</i> is
+ * the number of distinct parts of the input, whatever the weight. This is not
+ * the geometric form of the bijection that the applet animates, which is
+ * {@link PartitionBijections#GLAISHER}.
+ * 
+ * @author Kris Torres
+ */
+public final class Glaisher
+{
+   /** Prevents the instantiation of this class. */
+   private Glaisher() {}
+   
+   /**
+    * Returns the partition into distinct parts that corresponds to the
+    * specified partition into odd parts.
+    * 
+    * @param p   the partition into odd parts
+    * 
+    * @return the partition into distinct parts
+    * 
+    * @throws IllegalArgumentException if the parts of the partition are not
+    *         odd
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static MultiplicityPartition toDistinct(MultiplicityPartition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      // Tests if the parts of the partition are odd.
+      if (!p.isOdd())
+         throw new IllegalArgumentException("Illegal partition: " + p);
+      
+      int d = p.numberOfDistinctParts();
+      int size = 0;
+      
+      for (int i = 0; i < d; i++)
+         size += Integer.bitCount(p.multiplicity(p.distinctPart(i)));
+      
+      int[] parts = new int[size];
+      
+      // Splits each multiplicity into its bits, from the lowest one up.
+      for (int i = 0, k = 0; i < d; i++)
+      {
+         int part = p.distinctPart(i);
+         
+         for (int m = p.multiplicity(part); m != 0; m &= m - 1)
+            parts[k++] = part << Integer.numberOfTrailingZeros(m);
+      }
+      
+      // Sorts the distinct parts into decreasing order.
+      Arrays.sort(parts);
+      for (int i = 0, j = size - 1; i < j; i++, j--)
+      {
+         int part = parts[i];
+         parts[i] = parts[j];
+         parts[j] = part;
+      }
+      
+      int[] counts = new int[size];
+      Arrays.fill(counts, 1);
+      
+      return new MultiplicityPartition(parts, counts, size);
+   }
+   
+   /**
+    * Returns the partition into odd parts that corresponds to the specified
+    * partition into distinct parts.
+    * 
+    * @param p   the partition into distinct parts
+    * 
+    * @return the partition into odd parts
+    * 
+    * @throws IllegalArgumentException if the parts of the partition are not
+    *         distinct
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static MultiplicityPartition toOdd(MultiplicityPartition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      // Tests if the parts of the partition are distinct.
+      if (!p.isDistinct())
+         throw new IllegalArgumentException("Illegal partition: " + p);
+      
+      int d = p.numberOfDistinctParts();
+      long[] runs = new long[d];
+      
+      // Halves each part until it is odd, packing the odd part into the high
+      // word and the number of copies of it into the low word, so that the
+      // runs sort by their odd parts.
+      for (int i = 0; i < d; i++)
+      {
+         int part = p.distinctPart(i);
+         int j = Integer.numberOfTrailingZeros(part);
+         runs[i] = (long) (part >>> j) << 32 | 1L << j;
+      }
+      
+      Arrays.sort(runs);
+      
+      int[] parts = new int[d];
+      int[] counts = new int[d];
+      int distinct = 0;
+      
+      // Merges the runs of equal odd parts from the largest part down.
+      for (int i = d - 1; i >= 0; i--)
+      {
+         int part = (int) (runs[i] >>> 32);
+         int count = (int) runs[i];
+         
+         if (distinct > 0 && parts[distinct - 1] == part)
+         {
+            counts[distinct - 1] += count;
+         }
+         else
+         {
+            parts[distinct] = part;
+            counts[distinct] = count;
+            distinct++;
+         }
+      }
+      
+      return new MultiplicityPartition(parts, counts, distinct);
+   }
+}
@@ -0,0 +1,633 @@
+package edu.ucla.math;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A partition stored in <b>multiplicity notation</b>, that is, as the pairs
+ * (<i>a</i>, <i>m<sub>a</sub></i>) of its distinct parts <i>a</i> and their
+ * multiplicities <i>m<sub>a</sub></i>. A random partition of <i>n</i> has about
+ * √<i>n</i> distinct parts, so this representation is much smaller than a
+ * {@link Partition} of the same weight, and all of its statistics are computed
+ * in time proportional to the number of distinct parts.
+ * 
+ * @author Kris Torres
+ */
+public final class MultiplicityPartition implements ReadablePartition
+{
+   /** The initial capacity of the buffers of an "empty" partition. */
+   private static final int DEFAULT_CAPACITY = 10;
+   
+   /** The distinct parts in this partition in decreasing order. */
+   private int[] parts;
+   
+   /** The multiplicities of the distinct parts in this partition. */
+   private int[] counts;
+   
+   /** The number of distinct parts in this partition. */
+   private int distinct;
+   
+   /** The number of parts in this partition. */
+   private int size;
+   
+   /** The sum of the parts in this partition. */
+   private int weight;
+   
+   /** Constructs an "empty" partition. */
+   public MultiplicityPartition()
+   {
+      parts = new int[DEFAULT_CAPACITY];
+      counts = new int[DEFAULT_CAPACITY];
+   }
+   
+   /**
+    * Constructs a partition containing the specified parts.
+    * 
+    * @param parts   the parts
+    * 
+    * @throws IllegalArgumentException if any of the parts is not positive
+    */
+   public MultiplicityPartition(int... parts)
+   {
+      this(new Partition(parts));
+   }
+   
+   /**
+    * Constructs a partition containing the parts in the specified partition.
+    * 
+    * @param p   the partition to be converted
+    * 
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public MultiplicityPartition(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      this.parts = new int[DEFAULT_CAPACITY];
+      this.counts = new int[DEFAULT_CAPACITY];
+      
+      // Appends the runs of equal parts, which are in decreasing order.
+      for (int i = 0; i < p.numberOfParts(); i++)
+      {
+         int part = p.part(i);
+         
+         if (distinct > 0 && parts[distinct - 1] == part)
+         {
+            counts[distinct - 1]++;
+         }
+         else
+         {
+            ensureCapacity(distinct + 1);
+            parts[distinct] = part;
+            counts[distinct] = 1;
+            distinct++;
+         }
+      }
+      
+      size = p.numberOfParts();
+      weight = p.weight();
+   }
+   
+   /**
+    * Constructs a partition containing the parts in the specified partition.
+    * 
+    * @param p   the partition to be copied
+    * 
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public MultiplicityPartition(MultiplicityPartition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      int capacity = Math.max(p.distinct, DEFAULT_CAPACITY);
+      parts = Arrays.copyOf(p.parts, capacity);
+      counts = Arrays.copyOf(p.counts, capacity);
+      distinct = p.distinct;
+      size = p.size;
+      weight = p.weight;
+   }
+   
+   /**
+    * Constructs a partition that takes ownership of the specified array
+    * buffers of distinct parts and multiplicities. The distinct parts must be
+    * positive and in decreasing order, and the multiplicities must be
+    * positive.
+    * 
+    * @param parts      the array buffer of distinct parts
+    * @param counts     the array buffer of multiplicities
+    * @param distinct   the number of distinct parts in the buffers
+    * 
+    * @throws ArithmeticException if the weight of the partition overflows
+    */
+   MultiplicityPartition(int[] parts, int[] counts, int distinct)
+   {
+      this.parts = parts;
+      this.counts = counts;
+      this.distinct = distinct;
+      
+      for (int i = 0; i < distinct; i++)
+      {
+         size = Math.addExact(size, counts[i]);
+         weight = Math.addExact(weight,
+            Math.multiplyExact(parts[i], counts[i]));
+      }
+   }
+   
+   /** Removes all of the parts from this partition. */
+   public void clear()
+   {
+      distinct = 0;
+      size = 0;
+      weight = 0;
+   }
+   
+   /**
+    * Tests if this partition contains the specified part.
+    * 
+    * @param part   the part to be searched
+    * 
+    * @return <code>true</code> if this partition contains the part, or
+    *         <code>false</code> otherwise
+    */
+   @Override
+   public boolean contains(int part) { return indexOf(part) >= 0; }
+   
+   /**
+    * Returns the <b>crank</b> of this partition. For a partition λ, let
+    * <i>b</i>(λ) denote the largest part in λ, ω(λ) denote the multiplicity of
+    * 1 in λ, and μ(λ) denote the number of parts in λ larger than ω(λ). If
+    * ω(λ) = 0, the crank <i>c</i>(λ) = <i>b</i>(λ). Otherwise,
+    * <i>c</i>(λ) = μ(λ) − ω(λ).
+    * 
+    * @return the crank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   @Override
+   public int crank()
+   {
+      // The crank of an "empty" partition is undefined!
+      if (isEmpty()) throw new RuntimeException("No such crank exists.");
+      
+      int ω = multiplicity(1);
+      
+      if (ω == 0)
+      {
+         return largestPart();
+      }
+      else
+      {
+         int μ = 0;
+         for (int i = 0; i < distinct && parts[i] > ω; i++) μ += counts[i];
+         return μ - ω;
+      }
+   }
+   
+   /**
+    * Returns the <i>k</i>-th distinct part in this partition. The distinct
+    * parts are indexed in decreasing order.
+    * 
+    * @param k   the index of the distinct part
+    * 
+    * @return the <i>k</i>-th distinct part
+    * 
+    * @throws IndexOutOfBoundsException if
+    *         <code>k < 0 || k >= numberOfDistinctParts()</code>
+    */
+   public int distinctPart(int k)
+   {
+      // Tests if k is valid.
+      if (k < 0 || k >= distinct)
+         throw new IndexOutOfBoundsException("Illegal part index: " + k);
+      
+      return parts[k];
+   }
+   
+   /**
+    * Returns the <b>Durfee rank</b> of this partition. The Durfee rank of a
+    * partition λ is the largest number <i>k</i> such that λ contains at least
+    * <i>k</i> parts ≥ <i>k</i>.
+    * 
+    * @return the Durfee rank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   @Override
+   public int durfeeRank()
+   {
+      // The Durfee rank of an "empty" partition is undefined!
+      if (isEmpty()) throw new RuntimeException("No such Durfee rank exists.");
+      
+      int s = 0;
+      int count = 0;
+      
+      // There are exactly count parts ≥ parts[i].
+      for (int i = 0; i < distinct; i++)
+      {
+         count += counts[i];
+         s = Math.max(s, Math.min(parts[i], count));
+      }
+      
+      return s;
+   }
+   
+   /**
+    * Ensures that the buffers can hold at least the specified number of
+    * distinct parts.
+    * 
+    * @param capacity   the minimum capacity
+    */
+   private void ensureCapacity(int capacity)
+   {
+      if (capacity > parts.length)
+      {
+         int length = Math.max(capacity, parts.length * 2);
+         parts = Arrays.copyOf(parts, length);
+         counts = Arrays.copyOf(counts, length);
+      }
+   }
+   
+   /**
+    * Compares the specified partition with this partition for equality.
+    * 
+    * @param p   the partition to be compared for equality
+    * 
+    * @return <code>true</code> if the two partitions are equal, or
+    *         <code>false</code> otherwise
+    */
+   public boolean equals(MultiplicityPartition p)
+   {
+      // Tests if the given partition is not null and has as many parts.
+      if (p == null || distinct != p.distinct || size != p.size) return false;
+      
+      // Tests if all of the pairs of corresponding entries are equal.
+      for (int i = 0; i < distinct; i++)
+      {
+         if (parts[i] != p.parts[i] || counts[i] != p.counts[i]) return false;
+      }
+      
+      return true;
+   }
+   
+   /**
+    * Removes one occurrence of the specified part from this partition. If the
+    * partition does not contain the part, then it is unchanged.
+    * 
+    * @param part   the part to be erased
+    */
+   public void erase(int part)
+   {
+      int i = indexOf(part);
+      
+      // Tests if this partition contains the part.
+      if (i >= 0)
+      {
+         if (--counts[i] == 0)
+         {
+            System.arraycopy(parts, i + 1, parts, i, distinct - i - 1);
+            System.arraycopy(counts, i + 1, counts, i, distinct - i - 1);
+            distinct--;
+         }
+         
+         size--;
+         weight -= part;
+      }
+   }
+   
+   /**
+    * Returns the index of the specified distinct part in this partition, or
+    * <code>-(<i>i</i> + 1)</code> if the partition does not contain the part,
+    * where <i>i</i> is the index at which the part would be inserted.
+    * 
+    * @param part   the part to be searched
+    * 
+    * @return the index of the part
+    */
+   private int indexOf(int part)
+   {
+      int low = 0;
+      int high = distinct;
+      
+      // Binary searches the distinct parts, which are in decreasing order.
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (parts[mid] > part) low = mid + 1;
+         else if (parts[mid] < part) high = mid;
+         else return mid;
+      }
+      
+      return -(low + 1);
+   }
+   
+   /**
+    * Inserts the specified part into this partition.
+    * 
+    * @param part   the part to be inserted
+    * 
+    * @throws IllegalArgumentException if the part is not positive
+    * @throws ArithmeticException if the weight of this partition overflows
+    */
+   public void insert(int part) { insert(part, 1); }
+   
+   /**
+    * Inserts the specified number of copies of the specified part into this
+    * partition.
+    * 
+    * @param part    the part to be inserted
+    * @param count   the number of copies
+    * 
+    * @throws IllegalArgumentException if the part is not positive, or if the
+    *         number of copies is negative
+    * @throws ArithmeticException if the weight of this partition overflows
+    */
+   public void insert(int part, int count)
+   {
+      // Tests if the part to be inserted is positive.
+      if (part < 1)
+         throw new IllegalArgumentException("Illegal part to insert: " + part);
+      
+      // Tests if the number of copies is nonnegative.
+      if (count < 0)
+         throw new IllegalArgumentException("Illegal part count: " + count);
+      
+      if (count == 0) return;
+      
+      weight = Math.addExact(weight, Math.multiplyExact(part, count));
+      size = Math.addExact(size, count);
+      
+      int i = indexOf(part);
+      
+      if (i >= 0)
+      {
+         counts[i] += count;
+      }
+      else
+      {
+         i = -(i + 1);
+         ensureCapacity(distinct + 1);
+         System.arraycopy(parts, i, parts, i + 1, distinct - i);
+         System.arraycopy(counts, i, counts, i + 1, distinct - i);
+         parts[i] = part;
+         counts[i] = count;
+         distinct++;
+      }
+   }
+   
+   /**
+    * Tests if this partition contains distinct parts.
+    * 
+    * @return <code>true</code> if this partition contains distinct parts, or
+    * <code>false</code> otherwise
+    */
+   @Override
+   public boolean isDistinct() { return distinct == size; }
+   
+   /**
+    * Tests if this partition is "empty."
+    * 
+    * @return <code>true</code> if this partition contains no parts, or
+    *         <code>false</code> otherwise
+    */
+   @Override
+   public boolean isEmpty() { return size == 0; }
+   
+   /**
+    * Tests if this partition is an even partition, that is, if all of the parts
+    * in the partition are even.
+    * 
+    * @return <code>true</code> if this partition is an even partition, or
+    *         <code>false</code> otherwise
+    */
+   @Override
+   public boolean isEven()
+   {
+      // Tests if all of the distinct parts in this partition are even.
+      for (int i = 0; i < distinct; i++) if (parts[i] % 2 != 0) return false;
+      
+      return true;
+   }
+   
+   /**
+    * Tests if this partition is an odd partition, that is, if all of the parts
+    * in the partition are odd.
+    * 
+    * @return <code>true</code> if this partition is an odd partition, or
+    *         <code>false</code> otherwise
+    */
+   @Override
+   public boolean isOdd()
+   {
+      // Tests if all of the distinct parts in this partition are odd.
+      for (int i = 0; i < distinct; i++) if (parts[i] % 2 == 0) return false;
+      
+      return true;
+   }
+   
+   /**
+    * Returns the <b>largest part</b> (the part at index <code>0</code>) in this
+    * partition.
+    * 
+    * @return the largest part
+    * 
+    * @throws NoSuchElementException if this partition contains no parts
+    */
+   @Override
+   public int largestPart()
+   {
+      // Tests if this partition is "nonempty."
+      if (isEmpty())
+         throw new NoSuchElementException("No such largest part exists.");
+      
+      return parts[0];
+   }
+   
+   /**
+    * Returns the <b>multiplicity</b> of the specified part in this partition.
+    * 
+    * @param part   the part to be counted
+    * 
+    * @return the multiplicity of the part
+    */
+   @Override
+   public int multiplicity(int part)
+   {
+      int i = indexOf(part);
+      return i >= 0 ? counts[i] : 0;
+   }
+   
+   /**
+    * Returns the <b>number of distinct parts</b> in this partition.
+    * 
+    * @return the number of distinct parts
+    */
+   public int numberOfDistinctParts() { return distinct; }
+   
+   /**
+    * Returns the <b>number of parts</b> in this partition.
+    * 
+    * @return the number of parts
+    */
+   @Override
+   public int numberOfParts() { return size; }
+   
+   /**
+    * Returns the <i>k</i>-th part in this partition.
+    * 
+    * @param k   the index of the part
+    * 
+    * @return the <i>k</i>-th part
+    * 
+    * @throws IndexOutOfBoundsException if
+    *         <code>k < 0 || k >= numberOfParts()</code>
+    */
+   @Override
+   public int part(int k)
+   {
+      // Tests if k is valid.
+      if (k < 0 || k >= size)
+         throw new IndexOutOfBoundsException("Illegal part index: " + k);
+      
+      // Skips the runs of equal parts that precede the k-th part.
+      int i = 0;
+      while (k >= counts[i]) k -= counts[i++];
+      
+      return parts[i];
+   }
+   
+   /**
+    * Returns the <b>rank</b> of this partition. The rank of a partition λ is
+    * the number obtained by subtracting the number of parts in λ from the
+    * largest part in λ.
+    * 
+    * @return the rank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   @Override
+   public int rank()
+   {
+      // The rank of an "empty" partition is undefined!
+      if (isEmpty()) throw new RuntimeException("No such rank exists.");
+      
+      return largestPart() - numberOfParts();
+   }
+   
+   /**
+    * Returns the <b>smallest part</b> (the part at index
+    * <code>numberOfParts() - 1</code>) in this partition.
+    * 
+    * @return the smallest part
+    * 
+    * @throws NoSuchElementException if this partition contains no parts
+    */
+   @Override
+   public int smallestPart()
+   {
+      // Tests if this partition is "nonempty."
+      if (isEmpty())
+         throw new NoSuchElementException("No such smallest part exists.");
+      
+      return parts[distinct - 1];
+   }
+   
+   /**
+    * Returns an array containing all of the parts in this partition in
+    * decreasing order.
+    * 
+    * @return the array of parts
+    */
+   @Override
+   public Integer[] toArray()
+   {
+      Integer[] a = new Integer[size];
+      
+      // Inserts the runs of equal parts from this partition into the array.
+      for (int i = 0, k = 0; i < distinct; i++)
+         for (int j = 0; j < counts[i]; j++) a[k++] = parts[i];
+      
+      return a;
+   }
+   
+   /**
+    * Returns a partition containing the parts in this partition, stored one
+    * entry per part.
+    * 
+    * @return the partition
+    */
+   @Override
+   public Partition toPartition() { return new Partition(this); }
+   
+   /**
+    * Returns a string representation of the tuple of parts in this partition.
+    * 
+    * @return the tuple of parts as a string
+    */
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder("[");
+      
+      // Appends the runs of equal parts from largest to smallest.
+      for (int i = 0; i < distinct; i++)
+      {
+         for (int j = 0; j < counts[i]; j++)
+         {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(parts[i]);
+         }
+      }
+      
+      return sb.append(']').toString();
+   }
+   
+   /**
+    * Returns the <b>weight</b> <i>n</i> of this partition, that is, the sum of
+    * the parts in the partition.
+    * 
+    * @return the weight, or 0 if this partition contains no parts
+    */
+   @Override
+   public int weight() { return weight; }
+   
+   /**
+    * Returns the <b>conjugate</b> of the specified partition. The parts of the
+    * conjugate are the column lengths of the Ferrers diagram, so each distinct
+    * part contributes one run of equal parts.
+    * 
+    * @param p   the partition
+    * 
+    * @return the conjugate
+    * 
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static MultiplicityPartition conjugate(MultiplicityPartition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null)
+         throw new NullPointerException("Partition is null.");
+      
+      MultiplicityPartition q = new MultiplicityPartition();
+      q.ensureCapacity(p.distinct);
+      
+      // The columns longer than parts[i + 1] all have count cells, from the
+      // longest columns to the shortest ones.
+      int count = p.size;
+      
+      for (int i = p.distinct - 1; i >= 0; i--)
+      {
+         int next = i + 1 < p.distinct ? p.parts[i + 1] : 0;
+         q.parts[q.distinct] = count;
+         q.counts[q.distinct] = p.parts[i] - next;
+         q.distinct++;
+         count -= p.counts[i];
+      }
+      
+      q.size = p.distinct == 0 ? 0 : p.parts[0];
+      q.weight = p.weight;
+      
+      return q;
+   }
+}
@@ -0,0 +1,75 @@
+package edu.ucla.math;
+
+/**
+ * The kinds of parts that a partition is restricted to: all positive integers,
+ * the even positive integers or the odd positive integers.
+ * 
+ * @author Kris Torres
+ */
+public enum PartType
+{
+   /** Every positive integer is allowed as a part. */
+   ALL(1, 1),
+   
+   /** Only even positive integers are allowed as parts. */
+   EVEN(2, 2),
+   
+   /** Only odd positive integers are allowed as parts. */
+   ODD(1, 2);
+   
+   /** The smallest allowed part. */
+   private final int first;
+   
+   /** The difference between two consecutive allowed parts. */
+   private final int step;
+   
+   /**
+    * Constructs a kind of parts with the specified smallest part and the
+    * specified difference between consecutive parts.
+    * 
+    * @param first   the smallest allowed part
+    * @param step    the difference between two consecutive allowed parts
+    */
+   private PartType(int first, int step)
+   {
+      this.first = first;
+      this.step = step;
+   }
+   
+   /**
+    * Tests if the specified integer is an allowed part.
+    * 
+    * @param part   the integer
+    * 
+    * @return <code>true</code> if the integer is an allowed part, or
+    *         <code>false</code> otherwise
+    */
+   public boolean allows(int part)
+   {
+      return part >= first && (part - first) % step == 0;
+   }
+   
+   /**
+    * Returns the smallest allowed part.
+    * 
+    * @return the smallest allowed part
+    */
+   public int first() { return first; }
+   
+   /**
+    * Returns the <i>k</i>-th smallest allowed part, where the smallest allowed
+    * part has index 0.
+    * 
+    * @param k   the index of the allowed part
+    * 
+    * @return the <i>k</i>-th smallest allowed part
+    */
+   public int part(int k) { return first + k * step; }
+   
+   /**
+    * Returns the difference between two consecutive allowed parts.
+    * 
+    * @return the difference between two consecutive allowed parts
+    */
+   public int step() { return step; }
+}
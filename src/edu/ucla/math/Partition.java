@@ -1,9 +1,12 @@
 package edu.ucla.math;
 
-import java.util.Collections;
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.Random;
-import java.util.Vector;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * In number theory and combinatorics, a <b>partition</b> of a positive integer
@@ -15,19 +18,52 @@ import java.util.Vector;
  * 
  * @author Kris Torres
  */
-public final class Partition
+public final class Partition implements ReadablePartition
 {
+   /** The initial capacity of the buffer of an "empty" partition. */
+   private static final int DEFAULT_CAPACITY = 10;
+   
    /**
-    * The value of the square root of the Riemann zeta function ζ(<i>z</i>)
-    * evaluated at <i>z</i> = 2.
+    * The largest weight for which random partitions are drawn from a table of
+    * partition counts.
     */
-   private static final double SQRT_ZETA_2 = Math.PI / Math.sqrt(6.0);
+   private static final int MAX_TABULATED_WEIGHT = 10000;
+   
+   /** The metrics to which the samplers of exact weights report. */
+   private static volatile SamplerMetrics metrics = SamplerMetrics.NONE;
+   
+   /**
+    * The array buffer into which the parts in this partition are stored in
+    * decreasing order. Only the first <code>size</code> elements are parts.
+    */
+   private int[] buffer;
+   
+   /** The number of parts in this partition. */
+   private int size;
+   
+   /** The number of distinct parts in this partition. */
+   private int distinct;
    
-   /** The vector buffer into which the parts in this partition are stored. */
-   private Vector<Integer> buffer = new Vector<Integer>();
+   /** The number of odd parts in this partition. */
+   private int odd;
+   
+   /** The sum of the parts in this partition. */
+   private int weight;
+   
+   /** The Durfee rank of this partition, or 0 if it contains no parts. */
+   private int durfee;
+   
+   /** The crank of this partition, if <code>crankCached</code> is set. */
+   private int crank;
+   
+   /**
+    * Whether the crank of this partition has been computed since the last
+    * change to the partition.
+    */
+   private boolean crankCached;
    
    /** Constructs an "empty" partition. */
-   public Partition() {}
+   public Partition() { buffer = new int[DEFAULT_CAPACITY]; }
    
    /**
     * Constructs a partition containing the specified parts.
@@ -38,6 +74,8 @@ public final class Partition
     */
    public Partition(int... parts)
    {
+      buffer = new int[Math.max(parts.length, DEFAULT_CAPACITY)];
+      
       // Tests if all of the parts are positive.
       for (int i = 0; i < parts.length; i++)
       {
@@ -47,11 +85,11 @@ public final class Partition
             throw new IllegalArgumentException(error);
          }
          
-         buffer.add(parts[i]);
+         buffer[size++] = parts[i];
       }
       
-      Collections.sort(buffer);
-      Collections.reverse(buffer);
+      sort();
+      computeInvariants();
    }
    
    /**
@@ -69,6 +107,8 @@ public final class Partition
       // Tests if the given array is not null.
       if (a == null) throw new NullPointerException("Array is null.");
       
+      buffer = new int[Math.max(a.length, DEFAULT_CAPACITY)];
+      
       // Tests if all of the parts in the given array are not null and positive.
       for (int i = 0; i < a.length; i++)
       {
@@ -81,11 +121,11 @@ public final class Partition
             throw new IllegalArgumentException(error);
          }
          
-         buffer.add(a[i]);
+         buffer[size++] = a[i];
       }
       
-      Collections.sort(buffer);
-      Collections.reverse(buffer);
+      sort();
+      computeInvariants();
    }
    
    /**
@@ -100,11 +140,92 @@ public final class Partition
       // Tests if the given partition is not null.
       if (p == null) throw new NullPointerException("Partition is null.");
       
-      buffer = new Vector<Integer>(p.buffer);
+      buffer = Arrays.copyOf(p.buffer, Math.max(p.size, DEFAULT_CAPACITY));
+      size = p.size;
+      distinct = p.distinct;
+      odd = p.odd;
+      weight = p.weight;
+      durfee = p.durfee;
+      crank = p.crank;
+      crankCached = p.crankCached;
+   }
+   
+   /**
+    * Constructs a partition that takes ownership of the specified array buffer
+    * of parts, which must be positive and in decreasing order.
+    * 
+    * @param buffer   the array buffer
+    * @param size     the number of parts in the buffer
+    */
+   Partition(int[] buffer, int size)
+   {
+      this.buffer = buffer;
+      this.size = size;
+      computeInvariants();
+   }
+   
+   /**
+    * Constructs a partition containing the parts in the specified partition in
+    * multiplicity notation.
+    * 
+    * @param p   the partition to be converted
+    * 
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public Partition(MultiplicityPartition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      buffer = new int[Math.max(p.numberOfParts(), DEFAULT_CAPACITY)];
+      
+      // Expands the runs of equal parts, which are in decreasing order.
+      for (int i = 0; i < p.numberOfDistinctParts(); i++)
+      {
+         int part = p.distinctPart(i);
+         int count = p.multiplicity(part);
+         Arrays.fill(buffer, size, size + count, part);
+         size += count;
+      }
+      
+      computeInvariants();
    }
    
    /** Removes all of the parts from this partition. */
-   public void clear() { buffer.clear(); }
+   public void clear()
+   {
+      size = 0;
+      distinct = 0;
+      odd = 0;
+      weight = 0;
+      durfee = 0;
+      crankCached = false;
+   }
+   
+   /**
+    * Computes the weight, the Durfee rank and the counts of distinct and odd
+    * parts of this partition from scratch. The mutators maintain them
+    * incrementally afterwards.
+    */
+   private void computeInvariants()
+   {
+      distinct = 0;
+      odd = 0;
+      weight = 0;
+      durfee = 0;
+      crankCached = false;
+      
+      for (int i = 0; i < size; i++)
+      {
+         if (i == 0 || buffer[i] != buffer[i - 1]) distinct++;
+         if (buffer[i] % 2 != 0) odd++;
+         weight += buffer[i];
+         
+         // The parts are in decreasing order, so λ_i ≥ i for an initial run of
+         // indices, whose length is the Durfee rank.
+         if (buffer[i] > i) durfee = i + 1;
+      }
+   }
    
    /**
     * Tests if this partition contains the specified part.
@@ -114,7 +235,12 @@ public final class Partition
     * @return <code>true</code> if this partition contains the part, or
     *         <code>false</code> otherwise
     */
-   public boolean contains(int part) { return buffer.contains(part); }
+   @Override
+   public boolean contains(int part)
+   {
+      int i = lowerBound(part);
+      return i < size && buffer[i] == part;
+   }
    
    /**
     * Returns the <b>crank</b> of this partition. For a partition λ, let
@@ -127,23 +253,22 @@ public final class Partition
     * 
     * @throws RuntimeException if this partition contains no parts
     */
+   @Override
    public int crank()
    {
       // The crank of an "empty" partition is undefined!
       if (isEmpty()) throw new RuntimeException("No such crank exists.");
       
-      int ω = multiplicity(1);
-      
-      if (ω == 0)
-      {
-         return largestPart();
-      }
-      else
+      if (!crankCached)
       {
-         int μ = 0;
-         for (int element : buffer) if (element > ω) μ++;
-         return μ - ω;
+         int ω = multiplicity(1);
+         
+         // The parts larger than ω precede all of the other parts.
+         crank = ω == 0 ? largestPart() : lowerBound(ω) - ω;
+         crankCached = true;
       }
+      
+      return crank;
    }
    
    /**
@@ -155,21 +280,13 @@ public final class Partition
     * 
     * @throws RuntimeException if this partition contains no parts
     */
+   @Override
    public int durfeeRank()
    {
       // The Durfee rank of an "empty" partition is undefined!
       if (isEmpty()) throw new RuntimeException("No such Durfee rank exists.");
       
-      int s = 0;
-      
-      for (int i = 1; i <= buffer.firstElement(); i++)
-      {
-         int count = 0;
-         for (int element : buffer) if (element >= i) count++;
-         if (count >= i) s = i;
-      }
-      
-      return s;
+      return durfee;
    }
    
    /**
@@ -182,7 +299,13 @@ public final class Partition
     */
    public boolean equals(Partition p)
    {
-      return this == null ? p == null : buffer.equals(p.buffer);
+      // Tests if the given partition is not null and has as many parts.
+      if (p == null || size != p.size) return false;
+      
+      // Tests if all of the pairs of corresponding parts are equal.
+      for (int i = 0; i < size; i++) if (buffer[i] != p.buffer[i]) return false;
+      
+      return true;
    }
    
    /**
@@ -192,7 +315,25 @@ public final class Partition
     * 
     * @param part   the part to be erased
     */
-   public void erase(int part) { buffer.remove((Integer) part); }
+   public void erase(int part)
+   {
+      int i = lowerBound(part);
+      
+      // Tests if this partition contains the part.
+      if (i < size && buffer[i] == part)
+      {
+         System.arraycopy(buffer, i + 1, buffer, i, size - i - 1);
+         size--;
+         
+         // Updates the invariants of this partition.
+         if (i == size || buffer[i] != part) distinct--;
+         if (part % 2 != 0) odd--;
+         weight -= part;
+         if (durfee > 0 && (durfee > size || buffer[durfee - 1] < durfee))
+            durfee--;
+         crankCached = false;
+      }
+   }
    
    /**
     * Inserts the specified part into this partition.
@@ -207,9 +348,19 @@ public final class Partition
       if (part < 1)
          throw new IllegalArgumentException("Illegal part to insert: " + part);
       
-      buffer.add(part);
-      Collections.sort(buffer);
-      Collections.reverse(buffer);
+      // Inserts the part after all of the parts that are at least as large.
+      int i = upperBound(part);
+      if (size == buffer.length) buffer = Arrays.copyOf(buffer, size * 2 + 1);
+      System.arraycopy(buffer, i, buffer, i + 1, size - i);
+      buffer[i] = part;
+      size++;
+      
+      // Updates the invariants of this partition.
+      if (i == 0 || buffer[i - 1] != part) distinct++;
+      if (part % 2 != 0) odd++;
+      weight += part;
+      if (durfee < size && buffer[durfee] > durfee) durfee++;
+      crankCached = false;
    }
    
    /**
@@ -218,14 +369,8 @@ public final class Partition
     * @return <code>true</code> if this partition contains distinct parts, or
     * <code>false</code> otherwise
     */
-   public boolean isDistinct()
-   {
-      // Tests if all of the parts in ths partition are distinct.
-      for (int i = 0; i < numberOfParts() - 1; i++)
-         if (part(i) == part(i + 1)) return false;
-      
-      return true;
-   }
+   @Override
+   public boolean isDistinct() { return distinct == size; }
    
    /**
     * Tests if this partition is "empty."
@@ -233,7 +378,8 @@ public final class Partition
     * @return <code>true</code> if this partition contains no parts, or
     *         <code>false</code> otherwise
     */
-   public boolean isEmpty() { return buffer.isEmpty(); }
+   @Override
+   public boolean isEmpty() { return size == 0; }
    
    /**
     * Tests if this partition is an even partition, that is, if all of the parts
@@ -242,13 +388,8 @@ public final class Partition
     * @return <code>true</code> if this partition is an even partition, or
     *         <code>false</code> otherwise
     */
-   public boolean isEven()
-   {
-      // Tests if all of the parts in this partition are even.
-      for (int element : buffer) if (element % 2 != 0) return false;
-      
-      return true;
-   }
+   @Override
+   public boolean isEven() { return odd == 0; }
    
    /**
     * Tests if this partition is an odd partition, that is, if all of the parts
@@ -257,13 +398,8 @@ public final class Partition
     * @return <code>true</code> if this partition is an odd partition, or
     *         <code>false</code> otherwise
     */
-   public boolean isOdd()
-   {
-      // Tests if all of the parts in this partition are odd.
-      for (int element : buffer) if (element % 2 == 0) return false;
-      
-      return true;
-   }
+   @Override
+   public boolean isOdd() { return odd == size; }
    
    /**
     * Returns the <b>largest part</b> (the part at index <code>0</code>) in this
@@ -273,13 +409,39 @@ public final class Partition
     * 
     * @throws NoSuchElementException if this partition contains no parts
     */
+   @Override
    public int largestPart()
    {
       // Tests if this partition is "nonempty."
       if (isEmpty())
          throw new NoSuchElementException("No such largest part exists.");
       
-      return buffer.firstElement();
+      return buffer[0];
+   }
+   
+   /**
+    * Returns the index of the first part in this partition that is at most the
+    * specified integer, or <code>numberOfParts()</code> if there is no such
+    * part.
+    * 
+    * @param part   the integer
+    * 
+    * @return the index of the first part ≤ <code>part</code>
+    */
+   private int lowerBound(int part)
+   {
+      int low = 0;
+      int high = size;
+      
+      // Binary searches the parts, which are in decreasing order.
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (buffer[mid] > part) low = mid + 1;
+         else high = mid;
+      }
+      
+      return low;
    }
    
    /**
@@ -289,11 +451,10 @@ public final class Partition
     * 
     * @return the multiplicity of the part
     */
+   @Override
    public int multiplicity(int part)
    {
-      int count = 0;
-      for (int element : buffer) if (element == part) count++;
-      return count;
+      return upperBound(part) - lowerBound(part);
    }
    
    /**
@@ -301,7 +462,8 @@ public final class Partition
     * 
     * @return the number of parts
     */
-   public int numberOfParts() { return buffer.size(); }
+   @Override
+   public int numberOfParts() { return size; }
    
    /**
     * Returns the <i>k</i>-th part in this partition.
@@ -313,13 +475,14 @@ public final class Partition
     * @throws IndexOutOfBoundsException if
     *         <code>k < 0 || k >= numberOfParts()</code>
     */
+   @Override
    public int part(int k)
    {
       // Tests if k is valid.
       if (k < 0 || k >= numberOfParts())
          throw new IndexOutOfBoundsException("Illegal part index: " + k);
       
-      return buffer.get(k);
+      return buffer[k];
    }
    
    /**
@@ -337,9 +500,9 @@ public final class Partition
    public void printFerrersDiagram(char cell)
    {
       // Prints the parts as rows of cells from largest to smallest.
-      for (int element : buffer)
+      for (int i = 0; i < size; i++)
       {
-         for (int i = 0; i < element; i++) System.out.print(cell);
+         for (int j = 0; j < buffer[i]; j++) System.out.print(cell);
          System.out.println();
       }
    }
@@ -360,9 +523,9 @@ public final class Partition
       }
       else
       {
-         for (int i = numberOfParts() - 1; i >= 0; i--)
+         for (int i = size - 1; i >= 0; i--)
          {
-            for (int j = 0; j < part(i); j++) System.out.print(cell);
+            for (int j = 0; j < buffer[i]; j++) System.out.print(cell);
             System.out.println();
          }
       }
@@ -377,6 +540,7 @@ public final class Partition
     * 
     * @throws RuntimeException if this partition contains no parts
     */
+   @Override
    public int rank()
    {
       // The rank of an "empty" partition is undefined!
@@ -393,13 +557,28 @@ public final class Partition
     * 
     * @throws NoSuchElementException if this partition contains no parts
     */
+   @Override
    public int smallestPart()
    {
       // Tests if this partition is "nonempty."
       if (isEmpty())
          throw new NoSuchElementException("No such smallest part exists.");
       
-      return buffer.lastElement();
+      return buffer[size - 1];
+   }
+   
+   /** Sorts the parts in this partition in decreasing order. */
+   private void sort()
+   {
+      Arrays.sort(buffer, 0, size);
+      
+      // Reverses the parts, which are in increasing order.
+      for (int i = 0, j = size - 1; i < j; i++, j--)
+      {
+         int part = buffer[i];
+         buffer[i] = buffer[j];
+         buffer[j] = part;
+      }
    }
    
    /**
@@ -408,23 +587,69 @@ public final class Partition
     * 
     * @return the array of parts
     */
+   @Override
    public Integer[] toArray()
    {
-      Integer[] a = new Integer[numberOfParts()];
+      Integer[] a = new Integer[size];
       
       // Inserts the parts from this partition into the array.
-      for (int i = 0; i < numberOfParts(); i++) a[i] = part(i);
+      for (int i = 0; i < size; i++) a[i] = buffer[i];
       
       return a;
    }
    
+   /**
+    * Returns a copy of this partition.
+    * 
+    * @return the copy
+    */
+   @Override
+   public Partition toPartition() { return new Partition(this); }
+   
    /**
     * Returns a string representation of the tuple of parts in this partition.
     * 
     * @return the tuple of parts as a string
     */
    @Override
-   public String toString() { return buffer.toString(); }
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder("[");
+      
+      // Appends the parts from largest to smallest.
+      for (int i = 0; i < size; i++)
+      {
+         if (i > 0) sb.append(", ");
+         sb.append(buffer[i]);
+      }
+      
+      return sb.append(']').toString();
+   }
+   
+   /**
+    * Returns the index of the first part in this partition that is less than
+    * the specified integer, or <code>numberOfParts()</code> if there is no such
+    * part.
+    * 
+    * @param part   the integer
+    * 
+    * @return the index of the first part < <code>part</code>
+    */
+   private int upperBound(int part)
+   {
+      int low = 0;
+      int high = size;
+      
+      // Binary searches the parts, which are in decreasing order.
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (buffer[mid] >= part) low = mid + 1;
+         else high = mid;
+      }
+      
+      return low;
+   }
    
    /**
     * Returns the <b>weight</b> <i>n</i> of this partition, that is, the sum of
@@ -432,15 +657,13 @@ public final class Partition
     * 
     * @return the weight, or 0 if this partition contains no parts
     */
-   public int weight()
-   {
-      int n = 0;
-      for (int element : buffer) n += element;
-      return n;
-   }
+   @Override
+   public int weight() { return weight; }
    
    /**
-    * Returns the <b>conjugate</b> of the specified partition.
+    * Returns the <b>conjugate</b> of the specified partition. The conjugate is
+    * computed in O(<i>k</i> + <i>b</i>) time, where <i>k</i> is the number of
+    * parts and <i>b</i> is the largest part.
     * 
     * @param p   the partition
     * 
@@ -454,19 +677,75 @@ public final class Partition
       if (p == null)
          throw new NullPointerException("Partition is null.");
       
-      Partition q = new Partition();
+      if (p.isEmpty()) return new Partition();
       
-      // Inserts the rows in the Ferrers diagram as columns into the result.
-      for (int i = 0; i < p.numberOfParts(); i++)
+      int[] parts = new int[Math.max(p.buffer[0], DEFAULT_CAPACITY)];
+      
+      // Counts the cells in each column of the Ferrers diagram, that is, the
+      // parts that are longer than the column index. The column lengths are
+      // already in decreasing order.
+      for (int j = 0, i = p.size; j < p.buffer[0]; j++)
       {
-         for (int j = 0; j < p.part(i); j++)
-         {
-            q.erase(i);
-            q.insert(i + 1);
-         }
+         while (p.buffer[i - 1] <= j) i--;
+         parts[j] = i;
       }
       
-      return q;
+      return new Partition(parts, p.buffer[0]);
+   }
+   
+   /**
+    * Returns the partition of the specified positive integer into distinct
+    * even parts at the specified index, in reverse lexicographic order. The
+    * index ranges from 0 up to the number of such partitions − 1.
+    * 
+    * @param n       the positive integer
+    * @param index   the index
+    * 
+    * @return the partition at the index
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the index is out
+    *         of range
+    * @throws NullPointerException if the index is <code>null</code>
+    */
+   public static Partition distinctEvenFromIndex(int n, BigInteger index)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given index is not null.
+      if (index == null) throw new NullPointerException("Index is null.");
+      
+      // Tests if n has any partitions into even parts.
+      if (n % 2 != 0)
+         throw new IllegalArgumentException("Illegal index: " + index);
+      
+      return PartitionIndexer.DISTINCT.partition(n / 2, index, 2);
+   }
+   
+   /**
+    * Returns the index of the specified partition into distinct even parts
+    * among the partitions of its weight into distinct even parts, in reverse
+    * lexicographic order.
+    * 
+    * @param p   the partition
+    * 
+    * @return the index of the partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts, or
+    *         if its parts are not distinct and even
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static BigInteger distinctEvenIndexOf(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      // Tests if the partition is "nonempty" and its parts are distinct and
+      // even.
+      if (p.isEmpty() || !p.isDistinct() || !p.isEven())
+         throw new IllegalArgumentException("Illegal partition: " + p);
+      
+      return PartitionIndexer.DISTINCT.indexOf(p, 2);
    }
    
    /**
@@ -484,13 +763,7 @@ public final class Partition
       // Tests if n is positive.
       if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      Partition p;
-      
-      // Keeps on randomizing until we get lucky!
-      do { p = evenRandom(n); }
-      while (!p.isDistinct());
-      
-      return p;
+      return distinctSampler(n, PartType.EVEN).sample();
    }
    
    /**
@@ -509,13 +782,108 @@ public final class Partition
       if (n < 1 || n % 2 != 0)
          throw new IllegalArgumentException("Illegal even weight: " + n);
       
-      Partition p;
+      return distinctSampler(n, PartType.EVEN).sampleExactly();
+   }
+   
+   /**
+    * Returns the partition of the specified positive integer into distinct
+    * parts at the specified index, in reverse lexicographic order. The index
+    * ranges from 0 up to the number of such partitions − 1.
+    * 
+    * @param n       the positive integer
+    * @param index   the index
+    * 
+    * @return the partition at the index
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the index is out
+    *         of range
+    * @throws NullPointerException if the index is <code>null</code>
+    */
+   public static Partition distinctFromIndex(int n, BigInteger index)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given index is not null.
+      if (index == null) throw new NullPointerException("Index is null.");
+      
+      return PartitionIndexer.DISTINCT.partition(n, index, 1);
+   }
+   
+   /**
+    * Returns the index of the specified partition into distinct parts among
+    * the partitions of its weight into distinct parts, in reverse
+    * lexicographic order.
+    * 
+    * @param p   the partition
+    * 
+    * @return the index of the partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts, or
+    *         if its parts are not distinct
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static BigInteger distinctIndexOf(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      // Tests if the partition is "nonempty" and its parts are distinct.
+      if (p.isEmpty() || !p.isDistinct())
+         throw new IllegalArgumentException("Illegal partition: " + p);
+      
+      return PartitionIndexer.DISTINCT.indexOf(p, 1);
+   }
+   
+   /**
+    * Returns the partition of the specified positive integer into distinct
+    * odd parts at the specified index, in reverse lexicographic order. The
+    * index ranges from 0 up to the number of such partitions − 1.
+    * 
+    * @param n       the positive integer
+    * @param index   the index
+    * 
+    * @return the partition at the index
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the index is out
+    *         of range
+    * @throws NullPointerException if the index is <code>null</code>
+    */
+   public static Partition distinctOddFromIndex(int n, BigInteger index)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given index is not null.
+      if (index == null) throw new NullPointerException("Index is null.");
+      
+      return PartitionIndexer.DISTINCT_ODD.partition(n, index, 1);
+   }
+   
+   /**
+    * Returns the index of the specified partition into distinct odd parts
+    * among the partitions of its weight into distinct odd parts, in reverse
+    * lexicographic order.
+    * 
+    * @param p   the partition
+    * 
+    * @return the index of the partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts, or
+    *         if its parts are not distinct and odd
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static BigInteger distinctOddIndexOf(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
       
-      // Keeps on randomizing until we get lucky!
-      do { p = distinctEvenRandom(n); }
-      while (p.weight() != n);
+      // Tests if the partition is "nonempty" and its parts are distinct and
+      // odd.
+      if (p.isEmpty() || !p.isDistinct() || !p.isOdd())
+         throw new IllegalArgumentException("Illegal partition: " + p);
       
-      return p;
+      return PartitionIndexer.DISTINCT_ODD.indexOf(p, 1);
    }
    
    /**
@@ -533,13 +901,7 @@ public final class Partition
       // Tests if n is positive.
       if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      Partition p;
-      
-      // Keeps on randomizing until we get lucky!
-      do { p = oddRandom(n); }
-      while (!p.isDistinct());
-      
-      return p;
+      return distinctSampler(n, PartType.ODD).sample();
    }
    
    /**
@@ -551,19 +913,144 @@ public final class Partition
     * @return a random odd partition with distinct parts
     * 
     * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NoSuchElementException if <i>n</i> = 2
     */
    public static Partition distinctOddRandomExactly(int n)
    {
       // Tests if n is positive.
       if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      Partition p;
+      return distinctSampler(n, PartType.ODD).sampleExactly();
+   }
+   
+   /**
+    * Returns a random partition with distinct parts such that the sum of its
+    * parts is at least the specified positive integer.
+    * 
+    * @param n   the positive integer
+    * 
+    * @return a random partition with distinct parts
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public static Partition distinctRandom(int n)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return distinctSampler(n, PartType.ALL).sample();
+   }
+   
+   /**
+    * Returns a uniformly random partition with distinct parts such that the
+    * sum of its parts is exactly the specified positive integer.
+    * 
+    * @param n   the positive integer
+    * 
+    * @return a random partition with distinct parts
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public static Partition distinctRandomExactly(int n)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return distinctSampler(n, PartType.ALL).sampleExactly();
+   }
+   
+   /**
+    * Returns a sampler of random partitions of the specified positive integer
+    * into distinct parts of the specified kind, which draws its random numbers
+    * from the generator of the current thread.
+    * 
+    * @param n      the positive integer
+    * @param type   the kind of parts
+    * 
+    * @return the sampler
+    */
+   private static DistinctPartitionSampler distinctSampler(int n, PartType type)
+   {
+      Random random = ThreadLocalRandom.current();
+      DistinctPartitionSampler sampler =
+         new DistinctPartitionSampler(n, type, random);
+      sampler.setMetrics(metrics);
+      return sampler;
+   }
+   
+   /**
+    * Returns an adaptive sampler of uniformly random partitions of the
+    * specified positive integer into the specified kind of parts, which draws
+    * its random numbers from the generator of the current thread.
+    * 
+    * @param n      the positive integer
+    * @param type   the kind of parts
+    * 
+    * @return the sampler
+    */
+   private static DivideAndConquerSampler divideAndConquerSampler(int n,
+      PartType type)
+   {
+      Random random = ThreadLocalRandom.current();
+      DivideAndConquerSampler sampler =
+         new DivideAndConquerSampler(n, type, random);
+      sampler.setAdaptive(true);
+      sampler.setMetrics(metrics);
+      return sampler;
+   }
+   
+   /**
+    * Returns the partition of the specified positive integer into even parts
+    * at the specified index, in reverse lexicographic order. The index ranges
+    * from 0 up to the number of such partitions − 1.
+    * 
+    * @param n       the positive integer
+    * @param index   the index
+    * 
+    * @return the partition at the index
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the index is out
+    *         of range
+    * @throws NullPointerException if the index is <code>null</code>
+    */
+   public static Partition evenFromIndex(int n, BigInteger index)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given index is not null.
+      if (index == null) throw new NullPointerException("Index is null.");
       
-      // Keeps on randomizing until we get lucky!
-      do { p = distinctOddRandom(n); }
-      while (p.weight() != n);
+      // Tests if n has any partitions into even parts.
+      if (n % 2 != 0)
+         throw new IllegalArgumentException("Illegal index: " + index);
       
-      return p;
+      return PartitionIndexer.ALL.partition(n / 2, index, 2);
+   }
+   
+   /**
+    * Returns the index of the specified partition into even parts among the
+    * partitions of its weight into even parts, in reverse lexicographic
+    * order.
+    * 
+    * @param p   the partition
+    * 
+    * @return the index of the partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts, or
+    *         if its parts are not even
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static BigInteger evenIndexOf(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      // Tests if the partition is "nonempty" and its parts are even.
+      if (p.isEmpty() || !p.isEven())
+         throw new IllegalArgumentException("Illegal partition: " + p);
+      
+      return PartitionIndexer.ALL.indexOf(p, 2);
    }
    
    /**
@@ -581,32 +1068,12 @@ public final class Partition
       // Tests if n is positive.
       if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      Partition p = new Partition();
-      Random shuffle = new Random();
-      
-      // Generates a random even partition.
-      for (int i = 2; p.weight() < n; i += 2)
-      {
-         double u = shuffle.nextDouble();
-         
-         // log u is undefined!
-         if (u > 0.0)
-         {
-            double x = Math.exp(-SQRT_ZETA_2 / Math.sqrt(n));
-            double λ = 1 - Math.pow(x, i);
-            int count = (int) Math.floor(-Math.log(u) / λ);
-            
-            // Inserts the parts into the partition.
-            for (int j = 0; j < count; j++) p.insert(i);
-         }
-      }
-      
-      return p;
+      return sampler(n, PartType.EVEN).sample();
    }
    
    /**
-    * Returns a random even partition such that the sum of its parts is exactly
-    * the specified positive even integer.
+    * Returns a uniformly random even partition such that the sum of its parts
+    * is exactly the specified positive even integer.
     * 
     * @param n   the positive even integer
     * 
@@ -620,13 +1087,112 @@ public final class Partition
       if (n < 1 || n % 2 != 0)
          throw new IllegalArgumentException("Illegal even weight: " + n);
       
-      Partition p;
+      return divideAndConquerSampler(n, PartType.EVEN).sample();
+   }
+   
+   /**
+    * Returns the partition of the specified positive integer at the specified
+    * index in reverse lexicographic order, the order of
+    * {@link PartitionEnumerator}. The index ranges from 0, for [<i>n</i>], up
+    * to <i>p</i>(<i>n</i>) − 1, for [1, 1, …, 1], and this method is the
+    * inverse of {@link #indexOf(Partition)}. Once the counts it looks up are
+    * cached, it takes O(<i>n</i>) time, so a worker can start at any index,
+    * for example to enumerate its own slice of the partitions of <i>n</i>
+    * with a {@link PartitionEnumerator} that starts at the partition.
+    * 
+    * @param n       the positive integer
+    * @param index   the index
+    * 
+    * @return the partition at the index
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the index is out
+    *         of range
+    * @throws NullPointerException if the index is <code>null</code>
+    */
+   public static Partition fromIndex(int n, BigInteger index)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given index is not null.
+      if (index == null) throw new NullPointerException("Index is null.");
+      
+      return PartitionIndexer.ALL.partition(n, index, 1);
+   }
+   
+   /**
+    * Returns the index of the specified partition among the partitions of its
+    * weight in reverse lexicographic order, the order of
+    * {@link PartitionEnumerator}. This method is the inverse of
+    * {@link #fromIndex(int, BigInteger)}, and once the counts it looks up are
+    * cached, it takes time linear in the number of parts.
+    * 
+    * @param p   the partition
+    * 
+    * @return the index of the partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static BigInteger indexOf(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
       
-      // Keeps on randomizing until we get lucky!
-      do { p = evenRandom(n); }
-      while (p.weight() != n);
+      // Tests if the partition is "nonempty."
+      if (p.isEmpty())
+         throw new IllegalArgumentException("Illegal partition: " + p);
       
-      return p;
+      return PartitionIndexer.ALL.indexOf(p, 1);
+   }
+   
+   /**
+    * Returns the partition of the specified positive integer into odd parts
+    * at the specified index, in reverse lexicographic order. The index ranges
+    * from 0 up to the number of such partitions − 1.
+    * 
+    * @param n       the positive integer
+    * @param index   the index
+    * 
+    * @return the partition at the index
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the index is out
+    *         of range
+    * @throws NullPointerException if the index is <code>null</code>
+    */
+   public static Partition oddFromIndex(int n, BigInteger index)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given index is not null.
+      if (index == null) throw new NullPointerException("Index is null.");
+      
+      return PartitionIndexer.ODD.partition(n, index, 1);
+   }
+   
+   /**
+    * Returns the index of the specified partition into odd parts among the
+    * partitions of its weight into odd parts, in reverse lexicographic order.
+    * 
+    * @param p   the partition
+    * 
+    * @return the index of the partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts, or
+    *         if its parts are not odd
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static BigInteger oddIndexOf(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      // Tests if the partition is "nonempty" and its parts are odd.
+      if (p.isEmpty() || !p.isOdd())
+         throw new IllegalArgumentException("Illegal partition: " + p);
+      
+      return PartitionIndexer.ODD.indexOf(p, 1);
    }
    
    /**
@@ -644,32 +1210,12 @@ public final class Partition
       // Tests if n is positive.
       if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      Partition p = new Partition();
-      Random shuffle = new Random();
-      
-      // Generates a random even partition.
-      for (int i = 1; p.weight() < n; i += 2)
-      {
-         double u = shuffle.nextDouble();
-         
-         // log u is undefined!
-         if (u > 0.0)
-         {
-            double x = Math.exp(-SQRT_ZETA_2 / Math.sqrt(n));
-            double λ = 1 - Math.pow(x, i);
-            int count = (int) Math.floor(-Math.log(u) / λ);
-            
-            // Inserts the parts into the partition.
-            for (int j = 0; j < count; j++) p.insert(i);
-         }
-      }
-      
-      return p;
+      return sampler(n, PartType.ODD).sample();
    }
    
    /**
-    * Returns a random odd partition such that the sum of its parts is exactly
-    * the specified positive integer.
+    * Returns a uniformly random odd partition such that the sum of its parts is
+    * exactly the specified positive integer.
     * 
     * @param n   the positive integer
     * 
@@ -682,13 +1228,7 @@ public final class Partition
       // Tests if n is positive.
       if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      Partition p;
-      
-      // Keeps on randomizing until we get lucky!
-      do { p = oddRandom(n); }
-      while (p.weight() != n);
-      
-      return p;
+      return divideAndConquerSampler(n, PartType.ODD).sample();
    }
    
    /**
@@ -706,32 +1246,15 @@ public final class Partition
       // Tests if n is positive.
       if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      Partition p = new Partition();
-      Random shuffle = new Random();
-      
-      // Generates a random partition.
-      for (int i = 1; p.weight() < n; i++)
-      {
-         double u = shuffle.nextDouble();
-         
-         // log u is undefined!
-         if (u > 0.0)
-         {
-            double x = Math.exp(-SQRT_ZETA_2 / Math.sqrt(n));
-            double λ = 1 - Math.pow(x, i);
-            int count = (int) Math.floor(-Math.log(u) / λ);
-            
-            // Inserts the parts into the partition.
-            for (int j = 0; j < count; j++) p.insert(i);
-         }
-      }
-      
-      return p;
+      return sampler(n, PartType.ALL).sample();
    }
    
    /**
-    * Returns a random partition such that the sum of its parts is exactly the
-    * specified positive integer.
+    * Returns a uniformly random partition such that the sum of its parts is
+    * exactly the specified positive integer. Beyond a few thousand, the table
+    * of partition counts needed by {@link UniformPartitionSampler} grows too
+    * large, so the partition is drawn by a {@link DivideAndConquerSampler}
+    * instead.
     * 
     * @param n   the positive integer
     * 
@@ -744,12 +1267,152 @@ public final class Partition
       // Tests if n is positive.
       if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      Partition p = new Partition();
+      if (n > MAX_TABULATED_WEIGHT)
+         return divideAndConquerSampler(n, PartType.ALL).sample();
       
-      // Keeps on randomizing until we get lucky!
-      while (p.weight() != n) p = random(n);
+      Random random = ThreadLocalRandom.current();
+      UniformPartitionSampler sampler = new UniformPartitionSampler(n, random);
+      sampler.setMetrics(metrics);
+      return sampler.sample();
+   }
+   
+   /**
+    * Returns a sampler of random partitions of at least the specified positive
+    * integer into the specified kind of parts, which draws its random numbers
+    * from the generator of the current thread.
+    * 
+    * @param n      the positive integer
+    * @param type   the kind of parts
+    * 
+    * @return the sampler
+    */
+   private static PartitionSampler sampler(int n, PartType type)
+   {
+      return new PartitionSampler(n, type, ThreadLocalRandom.current());
+   }
+   
+   /**
+    * Returns the <b>self-conjugate</b> partition whose diagonal hook lengths
+    * are the parts of the specified partition into distinct odd parts. The
+    * <i>r</i>-th hook consists of the <i>r</i>-th diagonal cell, the cells to
+    * its right and the cells below it, so a hook of length 2<i>a</i> + 1 adds
+    * <i>a</i> cells to both the <i>r</i>-th row and the <i>r</i>-th column.
+    * In Frobenius coordinates, the self-conjugate partition is
+    * (<i>a</i><sub>1</sub>, …, <i>a<sub>d</sub></i> |
+    * <i>a</i><sub>1</sub>, …, <i>a<sub>d</sub></i>). It has the same weight as
+    * the hook lengths, and it is built in O(<i>k</i>) time, where <i>k</i> is
+    * the number of its parts.
+    * 
+    * @param hooks   the partition into distinct odd parts
+    * 
+    * @return the self-conjugate partition
+    * 
+    * @throws IllegalArgumentException if the parts of the partition are not
+    *         distinct and odd
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public static Partition selfConjugate(Partition hooks)
+   {
+      // Tests if the given partition is not null.
+      if (hooks == null) throw new NullPointerException("Partition is null.");
+      
+      // Tests if the hook lengths are distinct and odd.
+      if (!hooks.isDistinct() || !hooks.isOdd())
+         throw new IllegalArgumentException("Illegal hook lengths: " + hooks);
+      
+      if (hooks.isEmpty()) return new Partition();
+      
+      int d = hooks.size;
+      int rows = (hooks.buffer[0] + 1) / 2;
+      int[] parts = new int[Math.max(rows, DEFAULT_CAPACITY)];
+      
+      // The r-th row above the diagonal has its diagonal cell and the arm of
+      // length a_r = (h_r − 1)/2.
+      for (int r = 0; r < d; r++) parts[r] = (hooks.buffer[r] - 1) / 2 + r + 1;
+      
+      // Every row i below the diagonal has one cell in each of the first d
+      // columns that are at least i long. Those are the first d rows that are
+      // at least i long, since the partition is self-conjugate.
+      for (int i = d, r = d; i < rows; i++)
+      {
+         while (parts[r - 1] <= i) r--;
+         parts[i] = r;
+      }
+      
+      return new Partition(parts, rows);
+   }
+   
+   /**
+    * Returns a random self-conjugate partition such that the sum of its parts
+    * is at least the specified positive integer. Its diagonal hook lengths
+    * are drawn as a random partition into distinct odd parts.
+    * 
+    * @param n   the positive integer
+    * 
+    * @return a random self-conjugate partition
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public static Partition selfConjugateRandom(int n)
+   {
+      return selfConjugate(distinctOddRandom(n));
+   }
+   
+   /**
+    * Returns a uniformly random self-conjugate partition such that the sum of
+    * its parts is exactly the specified positive integer. Its diagonal hook
+    * lengths are drawn as a uniformly random partition of <i>n</i> into
+    * distinct odd parts.
+    * 
+    * @param n   the positive integer
+    * 
+    * @return a random self-conjugate partition
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NoSuchElementException if <i>n</i> = 2
+    */
+   public static Partition selfConjugateRandomExactly(int n)
+   {
+      return selfConjugate(distinctOddRandomExactly(n));
+   }
+   
+   /**
+    * Sets the metrics to which the static methods that sample partitions of an
+    * exact weight report the number of attempts and the time taken by each
+    * sample.
+    * 
+    * @param metrics   the metrics, or {@link SamplerMetrics#NONE} to stop
+    *                  reporting
+    * 
+    * @throws NullPointerException if the metrics are <code>null</code>
+    */
+   public static void setSamplerMetrics(SamplerMetrics metrics)
+   {
+      // Tests if the given metrics are not null.
+      if (metrics == null) throw new NullPointerException("Metrics are null.");
+      
+      Partition.metrics = metrics;
+   }
+   
+   /**
+    * Returns a sequential stream of all of the partitions of the specified
+    * positive integer in reverse lexicographic order. The stream splits the
+    * partitions along prefixes of their parts into subtrees of about the same
+    * size, so a parallel stream spreads them over all of the threads of its
+    * pool.
+    * 
+    * @param n   the positive integer
+    * 
+    * @return a stream of the partitions of <i>n</i>
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public static Stream<Partition> stream(int n)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
       
-      return p;
+      return StreamSupport.stream(new PartitionSpliterator(n), false);
    }
    
    /**
@@ -782,13 +1445,17 @@ public final class Partition
          throw new NullPointerException(error);
       }
       
-      Partition p = new Partition();
+      PartitionBuilder p = new PartitionBuilder(Math.max(lhs.size, rhs.size));
       
-      // Inserts the sums of the pairs of corresponding parts.
-      for (int i = 0; i < Math.max(lhs.buffer.size(), rhs.buffer.size()); i++)
-         p.insert(lhs.part(i) + rhs.part(i));
+      // Appends the sums of the pairs of corresponding parts, where the
+      // shorter partition is padded with zeros.
+      for (int i = 0; i < Math.max(lhs.size, rhs.size); i++)
+      {
+         int part = i < lhs.size ? lhs.buffer[i] : 0;
+         p.append(i < rhs.size ? part + rhs.buffer[i] : part);
+      }
       
-      return p;
+      return p.build();
    }
    
    /**
@@ -821,11 +1488,12 @@ public final class Partition
          throw new NullPointerException(error);
       }
       
-      Partition p = new Partition(lhs);
+      PartitionBuilder p = new PartitionBuilder(lhs.size + rhs.size);
       
-      // Inserts the parts from the second partition into the first partition.
-      for (int i = 0; i < rhs.numberOfParts(); i++) p.insert(rhs.part(i));
+      // Appends the parts from both partitions.
+      for (int i = 0; i < lhs.size; i++) p.append(lhs.buffer[i]);
+      for (int i = 0; i < rhs.size; i++) p.append(rhs.buffer[i]);
       
-      return p;
+      return p.build();
    }
 }
\ No newline at end of file
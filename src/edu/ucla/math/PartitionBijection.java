@@ -0,0 +1,62 @@
+package edu.ucla.math;
+
+/**
+ * A bijection between two classes of partitions of the same integer, its
+ * <b>domain</b> and its <b>range</b>. A bijection maps every partition in its
+ * domain to a partition of the same weight in its range, and its inverse maps
+ * every partition in its range back to the partition it came from.
+ * 
+ * @author Kris Torres
+ * 
+ * @see PartitionBijections
+ */
+public interface PartitionBijection
+{
+   /**
+    * Returns the image of the specified partition under this bijection.
+    * 
+    * @param p   the partition in the domain
+    * 
+    * @return the image, which is in the range
+    * 
+    * @throws IllegalArgumentException if the partition is not in the domain
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   Partition apply(Partition p);
+   
+   /**
+    * Returns the preimage of the specified partition under this bijection.
+    * 
+    * @param p   the partition in the range
+    * 
+    * @return the preimage, which is in the domain
+    * 
+    * @throws IllegalArgumentException if the partition is not in the range
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   Partition inverse(Partition p);
+   
+   /**
+    * Tests if the specified partition is in the domain of this bijection.
+    * 
+    * @param p   the partition
+    * 
+    * @return <code>true</code> if the partition is in the domain, or
+    *         <code>false</code> otherwise
+    * 
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   boolean isInDomain(Partition p);
+   
+   /**
+    * Tests if the specified partition is in the range of this bijection.
+    * 
+    * @param p   the partition
+    * 
+    * @return <code>true</code> if the partition is in the range, or
+    *         <code>false</code> otherwise
+    * 
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   boolean isInRange(Partition p);
+}
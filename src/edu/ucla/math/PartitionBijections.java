@@ -0,0 +1,325 @@
+package edu.ucla.math;
+
+/**
+ * The bijections that the applet animates as moves of the cells of a Ferrers
+ * diagram, computed directly from the parts. In what follows, the cell in row
+ * <i>y</i> and column <i>x</i> of the diagram of λ is (<i>x</i>, <i>y</i>),
+ * counting from 0, λ′ is the conjugate of λ, and every bijection runs in
+ * O(<i>k</i> + <i>b</i>) time, where <i>k</i> is the number of parts and
+ * <i>b</i> is the largest part of its input, which is O(<i>n</i>).
+ * 
+ * @author Kris Torres
+ */
+public enum PartitionBijections implements PartitionBijection
+{
+   /**
+    * The <b>strike-slip</b> bijection. It cuts the diagram along the main
+    * diagonal, slides the cells strictly above the diagonal one column to the
+    * left, and slides the cells on or below it one row down. In Frobenius
+    * notation, it maps (α | β) to (α − 1 | β + 1), so its domain is the
+    * partitions whose last Frobenius arm is positive, that is, whose last
+    * row of the Durfee square reaches past the square, and its range is the
+    * conjugates of those partitions. It lowers the rank by 2.
+    */
+   STRIKE_SLIP
+   {
+      @Override
+      public Partition apply(Partition p)
+      {
+         // Tests if the given partition is in the domain.
+         if (!isInDomain(p))
+            throw new IllegalArgumentException("Illegal partition: " + p);
+         
+         int k = p.numberOfParts();
+         
+         if (k == 0) return new Partition();
+         
+         int[] parts = new int[k + 1];
+         
+         // Row r receives the cells of row r − 1 on or below the diagonal,
+         // which fill its first min(λ_{r − 1}, r) columns, followed by the
+         // cells of row r strictly above the diagonal.
+         for (int r = 0, previous = Integer.MAX_VALUE; r <= k; r++)
+         {
+            int part = r < k ? p.part(r) : 0;
+            parts[r] = Math.min(previous, r) + Math.max(part - r - 1, 0);
+            previous = part;
+         }
+         
+         return new Partition(parts, k + 1);
+      }
+      
+      @Override
+      public Partition inverse(Partition p)
+      {
+         // Tests if the given partition is in the range.
+         if (!isInRange(p))
+            throw new IllegalArgumentException("Illegal partition: " + p);
+         
+         int k = p.numberOfParts();
+         int[] parts = new int[Math.max(k - 1, 0)];
+         
+         // Row r receives the cells of row r + 1 strictly below the diagonal,
+         // which fill its first min(μ_{r + 1}, r + 1) columns, followed by
+         // the cells of row r on or above the diagonal.
+         for (int r = 0; r < k - 1; r++)
+         {
+            parts[r] = Math.min(p.part(r + 1), r + 1)
+               + Math.max(p.part(r) - r, 0);
+         }
+         
+         return new Partition(parts, parts.length);
+      }
+      
+      @Override
+      public boolean isInDomain(Partition p)
+      {
+         // Tests if the given partition is not null.
+         if (p == null) throw new NullPointerException("Partition is null.");
+         
+         if (p.isEmpty()) return true;
+         
+         int d = p.durfeeRank();
+         return p.part(d - 1) > d;
+      }
+      
+      @Override
+      public boolean isInRange(Partition p)
+      {
+         // Tests if the given partition is not null.
+         if (p == null) throw new NullPointerException("Partition is null.");
+         
+         if (p.isEmpty()) return true;
+         
+         // The last column of the Durfee square reaches past the square.
+         int d = p.durfeeRank();
+         return d < p.numberOfParts() && p.part(d) == d;
+      }
+   },
+   
+   /**
+    * The <b>shred-and-stretch</b> bijection on the partitions into even parts.
+    * It shreds the diagram into its even and odd columns, stretches both
+    * halves to half their width and twice their height, and transposes them,
+    * so that the two cells (2<i>j</i>, <i>y</i>) and (2<i>j</i> + 1,
+    * <i>y</i>) end up at (2<i>y</i>, <i>j</i>) and (2<i>y</i> + 1,
+    * <i>j</i>). It maps 2μ to 2μ′, so it is its own inverse.
+    */
+   SHRED_AND_STRETCH
+   {
+      @Override
+      public Partition apply(Partition p)
+      {
+         // Tests if the given partition is in the domain.
+         if (!isInDomain(p))
+            throw new IllegalArgumentException("Illegal partition: " + p);
+         
+         if (p.isEmpty()) return new Partition();
+         
+         int rows = p.part(0) / 2;
+         int[] parts = new int[rows];
+         
+         // Row j receives two cells for each part longer than 2j.
+         for (int j = 0, i = p.numberOfParts(); j < rows; j++)
+         {
+            while (p.part(i - 1) <= 2 * j) i--;
+            parts[j] = 2 * i;
+         }
+         
+         return new Partition(parts, rows);
+      }
+      
+      @Override
+      public Partition inverse(Partition p) { return apply(p); }
+      
+      @Override
+      public boolean isInDomain(Partition p)
+      {
+         // Tests if the given partition is not null.
+         if (p == null) throw new NullPointerException("Partition is null.");
+         
+         return p.isEven();
+      }
+      
+      @Override
+      public boolean isInRange(Partition p) { return isInDomain(p); }
+   },
+   
+   /**
+    * The <b>cut-and-stretch</b> bijection from the self-conjugate partitions
+    * to the partitions into distinct odd parts. It cuts the diagram just below
+    * the main diagonal, and stretches the row on and above the diagonal and
+    * the column below it at each diagonal cell into the even and odd cells of
+    * one row, which is the hook of that cell. Its inverse is
+    * {@link Partition#selfConjugate(Partition)}.
+    */
+   CUT_AND_STRETCH
+   {
+      @Override
+      public Partition apply(Partition p)
+      {
+         // Tests if the given partition is in the domain.
+         if (!isInDomain(p))
+            throw new IllegalArgumentException("Illegal partition: " + p);
+         
+         if (p.isEmpty()) return new Partition();
+         
+         int d = p.durfeeRank();
+         int[] parts = new int[d];
+         
+         // The hook of the r-th diagonal cell has an arm and a leg of length
+         // λ_r − r − 1 each.
+         for (int r = 0; r < d; r++) parts[r] = 2 * (p.part(r) - r) - 1;
+         
+         return new Partition(parts, d);
+      }
+      
+      @Override
+      public Partition inverse(Partition p)
+      {
+         // Tests if the given partition is not null.
+         if (p == null) throw new NullPointerException("Partition is null.");
+         
+         return Partition.selfConjugate(p);
+      }
+      
+      @Override
+      public boolean isInDomain(Partition p)
+      {
+         // Tests if the given partition is not null.
+         if (p == null) throw new NullPointerException("Partition is null.");
+         
+         int k = p.numberOfParts();
+         
+         if (k == 0) return true;
+         if (p.part(0) != k) return false;
+         
+         // Tests if every column is as long as the row of the same index.
+         for (int j = 0, i = k; j < k; j++)
+         {
+            while (p.part(i - 1) <= j) i--;
+            if (p.part(j) != i) return false;
+         }
+         
+         return true;
+      }
+      
+      @Override
+      public boolean isInRange(Partition p)
+      {
+         // Tests if the given partition is not null.
+         if (p == null) throw new NullPointerException("Partition is null.");
+         
+         return p.isDistinct() && p.isOdd();
+      }
+   },
+   
+   /**
+    * The geometric form of <b>Glaisher</b>'s bijection from the partitions
+    * into odd parts to the partitions into distinct parts. It cuts the
+    * diagram along the line <i>x</i> = 2<i>y</i>. Each row <i>s</i> to the
+    * right of the line, which has an even number of cells, is folded into two
+    * rows 2<i>s</i> and 2<i>s</i> + 1 of half its length, and each column
+    * <i>r</i> on or to the left of the line is laid down as a row <i>r</i>
+    * after them, so that
+    * <p>
+    * μ<sub>2<i>s</i></sub> = (λ<sub><i>s</i></sub> − 2<i>s</i> − 1)/2 +
+    * λ′<sub>2<i>s</i></sub> − <i>s</i>,
+    * <p>
+    * μ<sub>2<i>s</i> + 1</sub> = (λ<sub><i>s</i></sub> − 2<i>s</i> − 1)/2
+    * + λ′<sub>2<i>s</i> + 1</sub> − <i>s</i> − 1,
+    * <p>
+    * for every <i>s</i> with λ<sub><i>s</i></sub> ≥ 2<i>s</i> + 1, where a
+    * negative column term counts as 0.
+    */
+   GLAISHER
+   {
+      @Override
+      public Partition apply(Partition p)
+      {
+         // Tests if the given partition is in the domain.
+         if (!isInDomain(p))
+            throw new IllegalArgumentException("Illegal partition: " + p);
+         
+         int k = p.numberOfParts();
+         int d = 0;
+         
+         // Counts the rows that reach past the line x = 2y.
+         while (d < k && p.part(d) >= 2 * d + 1) d++;
+         
+         int[] parts = new int[2 * d];
+         
+         for (int r = 0, i = k; r < 2 * d; r++)
+         {
+            // Counts the parts longer than r, which is the length of column
+            // r.
+            while (i > 0 && p.part(i - 1) <= r) i--;
+            
+            int s = r / 2;
+            parts[r] = (p.part(s) - 2 * s - 1) / 2
+               + Math.max(i - (r + 1) / 2, 0);
+         }
+         
+         int size = d > 0 && parts[2 * d - 1] == 0 ? 2 * d - 1 : 2 * d;
+         return new Partition(parts, size);
+      }
+      
+      @Override
+      public Partition inverse(Partition p)
+      {
+         // Tests if the given partition is in the range.
+         if (!isInRange(p))
+            throw new IllegalArgumentException("Illegal partition: " + p);
+         
+         int m = p.numberOfParts();
+         
+         if (m == 0) return new Partition();
+         
+         int d = (m + 1) / 2;
+         int[] columns = new int[d];
+         
+         // Recovers the lengths of the columns 2s, each of which but the first
+         // is as long as the column before it, from the differences
+         // μ_{2s} − μ_{2s + 1}.
+         columns[d - 1] = p.part(2 * d - 2) + d - 1
+            - (m == 2 * d ? p.part(2 * d - 1) : 0);
+         
+         for (int s = d - 2; s >= 0; s--)
+            columns[s] = columns[s + 1] + p.part(2 * s) - p.part(2 * s + 1) - 1;
+         
+         int rows = columns[0];
+         int[] parts = new int[rows];
+         
+         // The rows that reach past the line x = 2y are rebuilt from their
+         // folded cells, and the rows below them from the columns.
+         for (int s = 0; s < d; s++)
+            parts[s] = 2 * (p.part(2 * s) - columns[s]) + 4 * s + 1;
+         
+         for (int y = d, s = d; y < rows; y++)
+         {
+            while (columns[s - 1] <= y) s--;
+            parts[y] = 2 * s - 1;
+         }
+         
+         return new Partition(parts, rows);
+      }
+      
+      @Override
+      public boolean isInDomain(Partition p)
+      {
+         // Tests if the given partition is not null.
+         if (p == null) throw new NullPointerException("Partition is null.");
+         
+         return p.isOdd();
+      }
+      
+      @Override
+      public boolean isInRange(Partition p)
+      {
+         // Tests if the given partition is not null.
+         if (p == null) throw new NullPointerException("Partition is null.");
+         
+         return p.isDistinct();
+      }
+   };
+}
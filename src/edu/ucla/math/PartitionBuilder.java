@@ -0,0 +1,155 @@
+package edu.ucla.math;
+
+import java.util.Arrays;
+
+/**
+ * A mutable buffer of parts from which partitions are built. Parts and runs of
+ * equal parts can be appended in any order, and they are sorted only once when
+ * the partition is built, so building a partition of <i>k</i> parts takes
+ * O(<i>k</i> log <i>k</i>) time instead of the O(<i>k</i>² log <i>k</i>) time
+ * of <i>k</i> calls to {@link Partition#insert(int)}. If the parts are appended
+ * in increasing or decreasing order, then no sorting is needed at all.
+ * 
+ * @author Kris Torres
+ */
+public final class PartitionBuilder
+{
+   /** The initial capacity of the buffer of an "empty" builder. */
+   private static final int DEFAULT_CAPACITY = 10;
+   
+   /** The array buffer into which the parts are appended. */
+   private int[] buffer;
+   
+   /** The number of parts appended to this builder. */
+   private int size;
+   
+   /** The sum of the parts appended to this builder. */
+   private int weight;
+   
+   /** Whether the parts have been appended in increasing order. */
+   private boolean increasing = true;
+   
+   /** Whether the parts have been appended in decreasing order. */
+   private boolean decreasing = true;
+   
+   /** Constructs an "empty" builder. */
+   public PartitionBuilder() { this(DEFAULT_CAPACITY); }
+   
+   /**
+    * Constructs an "empty" builder with room for the specified number of parts.
+    * 
+    * @param capacity   the initial number of parts
+    * 
+    * @throws IllegalArgumentException if the capacity is negative
+    */
+   public PartitionBuilder(int capacity)
+   {
+      // Tests if the capacity is nonnegative.
+      if (capacity < 0)
+         throw new IllegalArgumentException("Illegal capacity: " + capacity);
+      
+      buffer = new int[capacity];
+   }
+   
+   /**
+    * Appends the specified part to this builder.
+    * 
+    * @param part   the part to be appended
+    * 
+    * @return this builder
+    * 
+    * @throws IllegalArgumentException if the part is not positive
+    */
+   public PartitionBuilder append(int part) { return append(part, 1); }
+   
+   /**
+    * Appends the specified number of copies of the specified part to this
+    * builder.
+    * 
+    * @param part    the part to be appended
+    * @param count   the number of copies
+    * 
+    * @return this builder
+    * 
+    * @throws IllegalArgumentException if the part is not positive, or if the
+    *         number of copies is negative
+    */
+   public PartitionBuilder append(int part, int count)
+   {
+      // Tests if the part to be appended is positive.
+      if (part < 1)
+         throw new IllegalArgumentException("Illegal part to append: " + part);
+      
+      // Tests if the number of copies is nonnegative.
+      if (count < 0)
+         throw new IllegalArgumentException("Illegal part count: " + count);
+      
+      if (count == 0) return this;
+      
+      // Keeps track of whether the parts are already in order.
+      if (size > 0)
+      {
+         if (part < buffer[size - 1]) increasing = false;
+         if (part > buffer[size - 1]) decreasing = false;
+      }
+      
+      if (size + count > buffer.length)
+         buffer = Arrays.copyOf(buffer, Math.max(size + count, size * 2 + 1));
+      
+      Arrays.fill(buffer, size, size + count, part);
+      size += count;
+      weight += part * count;
+      
+      return this;
+   }
+   
+   /**
+    * Returns a partition containing all of the parts appended to this builder.
+    * The builder is left unchanged, so more parts can be appended to it
+    * afterwards.
+    * 
+    * @return the partition
+    */
+   public Partition build()
+   {
+      int[] parts = Arrays.copyOf(buffer, Math.max(size, DEFAULT_CAPACITY));
+      
+      if (!decreasing)
+      {
+         if (!increasing) Arrays.sort(parts, 0, size);
+         
+         // Reverses the parts, which are in increasing order.
+         for (int i = 0, j = size - 1; i < j; i++, j--)
+         {
+            int part = parts[i];
+            parts[i] = parts[j];
+            parts[j] = part;
+         }
+      }
+      
+      return new Partition(parts, size);
+   }
+   
+   /** Removes all of the parts from this builder. */
+   public void clear()
+   {
+      size = 0;
+      weight = 0;
+      increasing = true;
+      decreasing = true;
+   }
+   
+   /**
+    * Returns the number of parts appended to this builder.
+    * 
+    * @return the number of parts
+    */
+   public int numberOfParts() { return size; }
+   
+   /**
+    * Returns the sum of the parts appended to this builder.
+    * 
+    * @return the weight, or 0 if no parts have been appended
+    */
+   public int weight() { return weight; }
+}
@@ -0,0 +1,178 @@
+package edu.ucla.math;
+
+import java.util.Arrays;
+
+/**
+ * A set of constraints on the partitions of an integer: the kind of the
+ * parts, whether the parts are distinct, the largest allowed part, the largest
+ * allowed number of parts, and a set of allowed parts. A partition satisfies
+ * the constraints if it satisfies every one of them, and a constraint that has
+ * not been set allows every partition. The constraints are set in a chain of
+ * calls, as in
+ * <pre>
+ * new PartitionConstraints().withType(PartType.ODD).withDistinctParts()
+ * </pre>
+ * for the partitions into distinct odd parts.
+ * 
+ * @author Kris Torres
+ * 
+ * @see ConstrainedPartitionEnumerator
+ */
+public final class PartitionConstraints
+{
+   /** The kind of the parts. */
+   private PartType type = PartType.ALL;
+   
+   /** Whether the parts are distinct. */
+   private boolean distinct;
+   
+   /** The largest allowed part. */
+   private int maxPart = Integer.MAX_VALUE;
+   
+   /** The largest allowed number of parts. */
+   private int maxParts = Integer.MAX_VALUE;
+   
+   /**
+    * The allowed parts in increasing order, or <code>null</code> if every
+    * part is allowed.
+    */
+   private int[] parts;
+   
+   /** Constructs a set of constraints that allows every partition. */
+   public PartitionConstraints() {}
+   
+   /**
+    * Returns the allowed parts up to the specified integer in increasing
+    * order.
+    * 
+    * @param n   the integer
+    * 
+    * @return the allowed parts
+    */
+   int[] allowedParts(int n)
+   {
+      int m = Math.min(n, maxPart);
+      int[] allowed = new int[Math.max(m, 0)];
+      int count = 0;
+      
+      for (int part = 1; part <= m; part++)
+      {
+         // Tests if the part is of the kind and in the set of parts.
+         if (type.allows(part)
+            && (parts == null || Arrays.binarySearch(parts, part) >= 0))
+         {
+            allowed[count++] = part;
+         }
+      }
+      
+      return Arrays.copyOf(allowed, count);
+   }
+   
+   /**
+    * Returns whether the parts must be distinct.
+    * 
+    * @return <code>true</code> if the parts must be distinct, or
+    *         <code>false</code> otherwise
+    */
+   boolean distinct() { return distinct; }
+   
+   /**
+    * Returns the largest allowed number of parts.
+    * 
+    * @return the largest allowed number of parts
+    */
+   int maxParts() { return maxParts; }
+   
+   /**
+    * Restricts the partitions to at most the specified number of parts.
+    * 
+    * @param k   the largest allowed number of parts
+    * 
+    * @return these constraints
+    * 
+    * @throws IllegalArgumentException if <i>k</i> < 0
+    */
+   public PartitionConstraints withAtMostParts(int k)
+   {
+      // Tests if k is nonnegative.
+      if (k < 0)
+         throw new IllegalArgumentException("Illegal number of parts: " + k);
+      
+      maxParts = k;
+      return this;
+   }
+   
+   /**
+    * Restricts the partitions to distinct parts.
+    * 
+    * @return these constraints
+    */
+   public PartitionConstraints withDistinctParts()
+   {
+      distinct = true;
+      return this;
+   }
+   
+   /**
+    * Restricts the partitions to parts no larger than the specified integer.
+    * 
+    * @param m   the largest allowed part
+    * 
+    * @return these constraints
+    * 
+    * @throws IllegalArgumentException if <i>m</i> < 0
+    */
+   public PartitionConstraints withPartsAtMost(int m)
+   {
+      // Tests if m is nonnegative.
+      if (m < 0) throw new IllegalArgumentException("Illegal part: " + m);
+      
+      maxPart = m;
+      return this;
+   }
+   
+   /**
+    * Restricts the partitions to parts in the specified set, replacing any
+    * set given before.
+    * 
+    * @param parts   the allowed parts
+    * 
+    * @return these constraints
+    * 
+    * @throws NullPointerException if the parts are <code>null</code>
+    * @throws IllegalArgumentException if a part is not positive
+    */
+   public PartitionConstraints withPartsIn(int... parts)
+   {
+      // Tests if the given parts are not null.
+      if (parts == null) throw new NullPointerException("Parts are null.");
+      
+      int[] sorted = parts.clone();
+      Arrays.sort(sorted);
+      
+      // Tests if the smallest part is positive.
+      if (sorted.length > 0 && sorted[0] < 1)
+         throw new IllegalArgumentException("Illegal part: " + sorted[0]);
+      
+      this.parts = sorted;
+      return this;
+   }
+   
+   /**
+    * Restricts the partitions to parts of the specified kind.
+    * 
+    * @param type   the kind of the parts
+    * 
+    * @return these constraints
+    * 
+    * @throws NullPointerException if the kind is <code>null</code>
+    */
+   public PartitionConstraints withType(PartType type)
+   {
+      // Tests if the given kind is not null.
+      if (type == null) throw new NullPointerException("Type is null.");
+      
+      this.type = type;
+      return this;
+   }
+}
@@ -0,0 +1,368 @@
+package edu.ucla.math;
+
+import java.lang.ref.SoftReference;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A thread-safe table of the numbers <i>T</i>(<i>m</i>, <i>k</i>) of
+ * partitions of <i>m</i> into parts among the <i>k</i> smallest parts of a
+ * given kind, either with repeated parts or with distinct parts. Row <i>k</i>
+ * of the table is computed from row <i>k</i> − 1 with the recurrence
+ * <p>
+ * <i>T</i>(<i>m</i>, <i>k</i>) = <i>T</i>(<i>m</i>, <i>k</i> − 1) +
+ * <i>T</i>(<i>m</i> − <i>s</i>, <i>k</i>)
+ * <p>
+ * for repeated parts, or <i>T</i>(<i>m</i>, <i>k</i> − 1) +
+ * <i>T</i>(<i>m</i> − <i>s</i>, <i>k</i> − 1) for distinct parts, which splits
+ * the partitions by whether they contain the <i>k</i>-th smallest part
+ * <i>s</i>.
+ * <p>
+ * Each row packs its counts into a single array of 32-bit words, so that a
+ * count takes a few words instead of a {@link BigInteger} object, and the sums
+ * of the recurrence are computed on the words directly. The rows grow lazily,
+ * and their width at least doubles whenever it grows. They are held by soft
+ * references, so the garbage collector may evict them when memory is tight;
+ * an evicted row is recomputed from the highest row below it that is still in
+ * the table. Besides the rows, the table keeps the single row of the counts
+ * <i>T</i>(<i>m</i>) of partitions of <i>m</i> into any parts of the kind,
+ * which is never evicted. Counts that are already in the table are looked up
+ * without locking.
+ * 
+ * @author Kris Torres
+ */
+final class PartitionCountTable
+{
+   /** The smallest number of counts computed in a row. */
+   private static final int MIN_WIDTH = 64;
+   
+   /** The kind of the parts. */
+   private final PartType type;
+   
+   /** Whether the parts are distinct. */
+   private final boolean distinct;
+   
+   /**
+    * The soft references to the rows, where <code>rows[k]</code> refers to
+    * row <i>k</i>. The array is replaced rather than modified once published.
+    */
+   @SuppressWarnings({"unchecked", "rawtypes"})
+   private volatile SoftReference<Row>[] rows = new SoftReference[0];
+   
+   /** The width that every row is extended to when it is computed. */
+   private int width = MIN_WIDTH;
+   
+   /** The counts of partitions into any parts of the kind. */
+   private volatile Row sequence;
+   
+   /**
+    * Constructs an empty table of the numbers of partitions into parts of the
+    * specified kind.
+    * 
+    * @param type       the kind of the parts
+    * @param distinct   whether the parts are distinct
+    */
+   PartitionCountTable(PartType type, boolean distinct)
+   {
+      this.type = type;
+      this.distinct = distinct;
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into any parts of the kind of this table.
+    * 
+    * @param m   the nonnegative integer
+    * 
+    * @return <i>T</i>(<i>m</i>)
+    */
+   BigInteger count(int m)
+   {
+      Row row = sequence;
+      if (row == null || m >= row.width()) row = extendSequence(m);
+      
+      return row.get(m);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into parts among the specified number of smallest parts of the kind of
+    * this table.
+    * 
+    * @param m   the nonnegative integer
+    * @param k   the number of smallest parts
+    * 
+    * @return <i>T</i>(<i>m</i>, <i>k</i>)
+    */
+   BigInteger count(int m, int k)
+   {
+      // Only the parts up to m can appear in a partition of m.
+      k = Math.min(k, numberOfParts(m));
+      
+      SoftReference<Row>[] refs = rows;
+      Row row = k < refs.length ? refs[k].get() : null;
+      if (row == null || m >= row.width()) row = extendRow(m, k);
+      
+      return row.get(m);
+   }
+   
+   /**
+    * Computes row <i>k</i> of the table up to at least column <i>m</i>,
+    * together with the rows below it that have been evicted or are too
+    * narrow, and publishes them.
+    * 
+    * @param m   the column
+    * @param k   the row
+    * 
+    * @return row <i>k</i>
+    */
+   private synchronized Row extendRow(int m, int k)
+   {
+      if (m >= width) width = Math.max(m + 1, width * 2);
+      
+      SoftReference<Row>[] refs = Arrays.copyOf(rows,
+         Math.max(rows.length, k + 1));
+      Row[] chain = new Row[k + 1];
+      
+      // Finds the highest row below k that is still in the table and wide
+      // enough, collecting the rows above it that are still in the table.
+      int j = k;
+      
+      for (; j >= 0; j--)
+      {
+         chain[j] = refs[j] == null ? null : refs[j].get();
+         if (j < k && chain[j] != null && chain[j].width() >= width) break;
+      }
+      
+      for (int i = Math.max(j + 1, 0); i <= k; i++)
+      {
+         Row below = i == 0 ? null : chain[i - 1];
+         chain[i] = next(chain[i], below, i == 0 ? 0 : type.part(i - 1),
+            width);
+         refs[i] = new SoftReference<Row>(chain[i]);
+      }
+      
+      rows = refs;
+      return chain[k];
+   }
+   
+   /**
+    * Computes the counts of partitions into any parts of the kind of this
+    * table up to at least the specified integer, and publishes them. The
+    * counts are recomputed from scratch, one row at a time.
+    * 
+    * @param m   the nonnegative integer
+    * 
+    * @return the row of counts
+    */
+   private synchronized Row extendSequence(int m)
+   {
+      Row row = sequence;
+      if (row != null && m < row.width()) return row;
+      
+      int columns = Math.max(m + 1,
+         row == null ? MIN_WIDTH : row.width() * 2);
+      row = next(null, null, 0, columns);
+      
+      for (int k = 1, parts = numberOfParts(columns - 1); k <= parts; k++)
+         row = next(null, row, type.part(k - 1), columns);
+      
+      sequence = row;
+      return row;
+   }
+   
+   /**
+    * Computes a row of the table from the row below it, where row 0 has the
+    * single partition of 0.
+    * 
+    * @param row       the part of the row computed so far, or
+    *                  <code>null</code> if none
+    * @param below     the row below, which must be at least as wide, or
+    *                  <code>null</code> for row 0
+    * @param part      the largest part of the row
+    * @param columns   the number of columns to compute
+    * 
+    * @return the row
+    */
+   private Row next(Row row, Row below, int part, int columns)
+   {
+      if (row != null && row.width() >= columns) return row;
+      
+      int from = row == null ? 0 : row.width();
+      int[] offsets = row == null ? new int[columns + 1]
+         : Arrays.copyOf(row.offsets, columns + 1);
+      int[] words = row == null ? new int[columns]
+         : Arrays.copyOf(row.words, Math.max(row.words.length, columns));
+      
+      // The counts below the part are copied from the row below.
+      if (row == null && below != null && part > 0)
+      {
+         from = Math.min(part, columns);
+         System.arraycopy(below.offsets, 0, offsets, 0, from + 1);
+         words = Arrays.copyOf(below.words,
+            Math.max(below.offsets[from], columns));
+      }
+      
+      int end = offsets[from];
+      
+      for (int m = from; m < columns; m++)
+      {
+         // Adds the partitions without the part and those with it.
+         int[] a = below == null ? null : below.words;
+         int aFrom = below == null ? 0 : below.offsets[m];
+         int aTo = below == null ? 0 : below.offsets[m + 1];
+         
+         int[] b = words;
+         int bFrom = 0;
+         int bTo = 0;
+         
+         if (below == null)
+         {
+            // Row 0 has the single partition of 0, whose count is 1.
+            b = new int[] { m == 0 ? 1 : 0 };
+            bTo = m == 0 ? 1 : 0;
+         }
+         else if (m >= part)
+         {
+            int[] source = distinct ? below.offsets : offsets;
+            b = distinct ? below.words : words;
+            bFrom = source[m - part];
+            bTo = source[m - part + 1];
+         }
+         
+         int length = Math.max(aTo - aFrom, bTo - bFrom) + 1;
+         
+         if (end + length > words.length)
+         {
+            boolean self = b == words;
+            words = Arrays.copyOf(words,
+               Math.max(end + length, words.length * 2));
+            if (self) b = words;
+         }
+         
+         end = add(a, aFrom, aTo, b, bFrom, bTo, words, end);
+         offsets[m + 1] = end;
+      }
+      
+      return new Row(offsets, Arrays.copyOf(words, end));
+   }
+   
+   /**
+    * Returns the number of parts of the kind of this table that are at most
+    * the specified integer.
+    * 
+    * @param m   the integer
+    * 
+    * @return the number of parts
+    */
+   private int numberOfParts(int m)
+   {
+      return m < type.first() ? 0 : (m - type.first()) / type.step() + 1;
+   }
+   
+   /**
+    * Writes the sum of two counts, given as ranges of words from the least
+    * significant up, into the specified array of words, dropping the leading
+    * zero words. The destination must have room for one more word than the
+    * longer count.
+    * 
+    * @param a       the words of the first count, or <code>null</code> if
+    *                the range is empty
+    * @param aFrom   the start of the first count
+    * @param aTo     the end of the first count
+    * @param b       the words of the second count
+    * @param bFrom   the start of the second count
+    * @param bTo     the end of the second count
+    * @param sum     the destination of the sum
+    * @param from    the start of the sum in the destination
+    * 
+    * @return the end of the sum in the destination
+    */
+   private static int add(int[] a, int aFrom, int aTo, int[] b, int bFrom,
+      int bTo, int[] sum, int from)
+   {
+      int length = Math.max(aTo - aFrom, bTo - bFrom);
+      long carry = 0;
+      
+      for (int i = 0; i < length; i++)
+      {
+         long x = aFrom + i < aTo ? a[aFrom + i] & 0xFFFFFFFFL : 0;
+         long y = bFrom + i < bTo ? b[bFrom + i] & 0xFFFFFFFFL : 0;
+         carry += x + y;
+         sum[from + i] = (int) carry;
+         carry >>>= 32;
+      }
+      
+      int end = from + length;
+      if (carry != 0) sum[end++] = (int) carry;
+      
+      // A count of 0 has no words.
+      while (end > from && sum[end - 1] == 0) end--;
+      
+      return end;
+   }
+   
+   /** An immutable row of counts packed into arrays of ints. */
+   private static final class Row
+   {
+      /**
+       * The start of each count in the words, followed by the end of the
+       * last count.
+       */
+      final int[] offsets;
+      
+      /** The 32-bit words of the counts, from the least significant up. */
+      final int[] words;
+      
+      /**
+       * Constructs a row with the specified offsets and words.
+       * 
+       * @param offsets   the start of each count, followed by the end of the
+       *                  last count
+       * @param words     the words of the counts
+       */
+      Row(int[] offsets, int[] words)
+      {
+         this.offsets = offsets;
+         this.words = words;
+      }
+      
+      /**
+       * Returns the specified count of this row.
+       * 
+       * @param m   the column
+       * 
+       * @return the count
+       */
+      BigInteger get(int m)
+      {
+         int from = offsets[m];
+         int to = offsets[m + 1];
+         
+         // Tests if the count fits in a long.
+         if (to - from <= 2)
+         {
+            long low = to > from ? words[from] & 0xFFFFFFFFL : 0;
+            long high = to - from == 2 ? words[from + 1] & 0xFFFFFFFFL : 0;
+            if (high >>> 31 == 0) return BigInteger.valueOf(high << 32 | low);
+         }
+         
+         byte[] bytes = new byte[4 * (to - from)];
+         
+         for (int i = from, j = bytes.length - 1; i < to; i++)
+         {
+            for (int shift = 0; shift < 32; shift += 8, j--)
+               bytes[j] = (byte) (words[i] >>> shift);
+         }
+         
+         return new BigInteger(1, bytes);
+      }
+      
+      /**
+       * Returns the number of counts of this row.
+       * 
+       * @return the number of counts
+       */
+      int width() { return offsets.length - 1; }
+   }
+}
@@ -0,0 +1,155 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A shared, thread-safe table of the numbers <i>p</i>(<i>n</i>) of partitions
+ * of <i>n</i>, which grows as larger counts are requested. The counts are
+ * computed with Euler's pentagonal number recurrence
+ * <i>p</i>(<i>n</i>) = Σ (−1)<sup><i>k</i>+1</sup>
+ * <i>p</i>(<i>n</i> − <i>k</i>(3<i>k</i> − 1)/2), where the sum is over all
+ * nonzero integers <i>k</i>.
+ * <p>
+ * The counts up to <i>p</i>(405), the largest that fits in a
+ * <code>long</code>, are computed once with <code>long</code> arithmetic. The
+ * larger counts are computed with {@link BigInteger}s on demand, and the table
+ * grows by at least a quarter whenever it grows, so that a sequence of
+ * increasing requests takes time within a constant factor of the largest one,
+ * while a request just past the end of the table does not rebuild much more
+ * than it needs. Counts that are already in the table are looked up without
+ * locking.
+ * 
+ * @author Kris Torres
+ * 
+ * @see RademacherSeries
+ */
+public final class PartitionCounts
+{
+   /** The largest integer whose number of partitions fits in a long. */
+   private static final int MAX_LONG_WEIGHT = 405;
+   
+   /** The counts that fit in a long, where <code>SMALL[n]</code> = p(n). */
+   private static final long[] SMALL = new long[MAX_LONG_WEIGHT + 1];
+   
+   /**
+    * The table of counts, where <code>table[n]</code> = <i>p</i>(<i>n</i>).
+    * Every entry of the array is computed before the array is published, so
+    * its length is the number of counts computed so far.
+    */
+   private static volatile BigInteger[] table;
+   
+   static
+   {
+      SMALL[0] = 1;
+      
+      // The partial sums may overflow, but long arithmetic is exact modulo
+      // 2^64, and every p(n) up to p(405) fits in a long.
+      for (int n = 1; n <= MAX_LONG_WEIGHT; n++)
+      {
+         long p = 0;
+         
+         // Adds the terms for k = 1, −1, 2, −2, … in pairs of signs.
+         for (int k = 1; k * (3 * k - 1) / 2 <= n; k++)
+         {
+            long term = SMALL[n - k * (3 * k - 1) / 2];
+            int m = n - k * (3 * k + 1) / 2;
+            if (m >= 0) term += SMALL[m];
+            p = k % 2 != 0 ? p + term : p - term;
+         }
+         
+         SMALL[n] = p;
+      }
+      
+      BigInteger[] counts = new BigInteger[MAX_LONG_WEIGHT + 1];
+      for (int n = 0; n <= MAX_LONG_WEIGHT; n++)
+         counts[n] = BigInteger.valueOf(SMALL[n]);
+      
+      table = counts;
+   }
+   
+   /** Prevents instantiation of this class. */
+   private PartitionCounts() {}
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return <i>p</i>(<i>n</i>)
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger count(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      BigInteger[] counts = table;
+      if (n >= counts.length) counts = extend(n);
+      
+      return counts[n];
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer as
+    * a <code>long</code>.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return <i>p</i>(<i>n</i>)
+    * 
+    * @throws ArithmeticException if <i>p</i>(<i>n</i>) does not fit in a
+    *         <code>long</code>, that is, if <i>n</i> > 405
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static long countAsLong(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if p(n) fits in a long.
+      if (n > MAX_LONG_WEIGHT)
+         throw new ArithmeticException("Count overflows a long: p(" + n + ")");
+      
+      return SMALL[n];
+   }
+   
+   /**
+    * Extends the table of counts up to at least the specified integer, and
+    * publishes the extended table.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the extended table
+    */
+   private static synchronized BigInteger[] extend(int n)
+   {
+      BigInteger[] counts = table;
+      
+      // Another thread may have extended the table in the meantime.
+      if (n < counts.length) return counts;
+      
+      int computed = counts.length;
+      counts = Arrays.copyOf(counts, Math.max(n + 1, computed + computed / 4));
+      
+      for (; computed < counts.length; computed++)
+      {
+         BigInteger p = BigInteger.ZERO;
+         
+         // Adds the terms for k = 1, −1, 2, −2, … in pairs of signs.
+         for (int k = 1; k * (3 * k - 1) / 2 <= computed; k++)
+         {
+            BigInteger term = counts[computed - k * (3 * k - 1) / 2];
+            int m = computed - k * (3 * k + 1) / 2;
+            if (m >= 0) term = term.add(counts[m]);
+            p = k % 2 != 0 ? p.add(term) : p.subtract(term);
+         }
+         
+         counts[computed] = p;
+      }
+      
+      table = counts;
+      return counts;
+   }
+}
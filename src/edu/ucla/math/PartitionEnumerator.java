@@ -0,0 +1,406 @@
+package edu.ucla.math;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * An enumerator of all of the partitions of a positive integer <i>n</i> in
+ * reverse lexicographic order, from [<i>n</i>] down to [1, 1, …, 1]. The
+ * enumerator implements algorithm ZS1 of Zoghbi and Stojmenovic, which moves
+ * from one partition to the next in constant amortized time by rewriting the
+ * tail of a single array of parts. No objects are allocated per partition: the
+ * enumerator itself is a read-only {@link PartitionView} of the current
+ * partition, and a {@link Partition} is only created on request.
+ * <p>
+ * Each step only rewrites the parts from the index returned by
+ * {@link #firstChangedIndex()} on, and the statistics of the view are updated
+ * from there: the weight, the largest part, the rank and the crank in
+ * constant time, and the Durfee rank in constant amortized time, since it is
+ * only rescanned over the parts that were rewritten. A full sweep of
+ * statistics over the partitions of <i>n</i> therefore takes time
+ * proportional to their number.
+ * <p>
+ * For example, the following counts the partitions of 100 whose largest part
+ * is odd:
+ * <pre>
+ * long[] count = new long[1];
+ * new PartitionEnumerator(100).forEachRemaining(p -&gt;
+ * {
+ *    if (p.largestPart() % 2 != 0) count[0]++;
+ * });
+ * </pre>
+ * 
+ * @author Kris Torres
+ */
+public final class PartitionEnumerator implements PartitionView
+{
+   /** The integer whose partitions are enumerated. */
+   private final int n;
+   
+   /**
+    * The parts of the current partition in decreasing order. Every element
+    * after the first <code>size</code> elements is 1.
+    */
+   private final int[] parts;
+   
+   /**
+    * The multiplicities of the parts larger than 1 in the current partition,
+    * where <code>counts[k]</code> is the multiplicity of <i>k</i>.
+    */
+   private final int[] counts;
+   
+   /** The number of leading parts that never change. */
+   private final int floor;
+   
+   /** The smallest value of the first part after the leading parts. */
+   private final int low;
+   
+   /** The number of parts in the current partition. */
+   private int size;
+   
+   /**
+    * The index of the last part in the current partition that is larger than
+    * 1, or −1 if there is none.
+    */
+   private int last;
+   
+   /**
+    * The number of parts in the current partition that are larger than its
+    * number of 1s.
+    */
+   private int above;
+   
+   /** The Durfee rank of the current partition. */
+   private int durfee;
+   
+   /** The index of the first part changed by the last step. */
+   private int changed;
+   
+   /** Whether the enumeration has started. */
+   private boolean started;
+   
+   /**
+    * Constructs an enumerator of the partitions of the specified positive
+    * integer. The enumerator starts before the first partition.
+    * 
+    * @param n   the positive integer
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public PartitionEnumerator(int n) { this(n, new int[0], 1, n); }
+   
+   /**
+    * Constructs an enumerator of the partitions of the weight of the
+    * specified partition, starting with that partition and going on in
+    * reverse lexicographic order. The enumerator starts before the partition.
+    * Together with {@link Partition#fromIndex(int, java.math.BigInteger)},
+    * this enumerates the partitions from any index on.
+    * 
+    * @param first   the first partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public PartitionEnumerator(Partition first)
+   {
+      this(weightOf(first), new int[0], 1, 1);
+      
+      for (size = 0; size < first.numberOfParts(); size++)
+         parts[size] = first.part(size);
+      
+      last = size - 1;
+      while (last >= 0 && parts[last] == 1) last--;
+      
+      updateCounts();
+      updateDurfeeRank();
+   }
+   
+   /**
+    * Constructs an enumerator of the partitions of the specified positive
+    * integer that start with the specified parts, followed by a part in the
+    * specified range. The enumerator starts before the first partition.
+    * 
+    * @param n        the positive integer
+    * @param prefix   the leading parts in decreasing order
+    * @param low      the smallest value of the part after the leading parts
+    * @param high     the largest value of the part after the leading parts,
+    *                 which is at most the last leading part and the rest of
+    *                 <i>n</i>
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   PartitionEnumerator(int n, int[] prefix, int low, int high)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      this.n = n;
+      this.parts = new int[n];
+      this.counts = new int[n + 1];
+      this.floor = prefix.length;
+      this.low = low;
+      
+      Arrays.fill(parts, 1);
+      System.arraycopy(prefix, 0, parts, 0, floor);
+      
+      int r = n;
+      for (int part : prefix) r -= part;
+      
+      // Starts at the largest partition in the range, which has as many
+      // copies of the largest part as fit, followed by the rest.
+      for (size = floor; r >= high; r -= high) parts[size++] = high;
+      if (r > 0) parts[size++] = r;
+      
+      last = size - 1;
+      while (last >= 0 && parts[last] == 1) last--;
+      
+      updateCounts();
+      updateDurfeeRank();
+   }
+   
+   @Override
+   public int crank()
+   {
+      // The crank of an "empty" partition is undefined!
+      if (!started) throw new RuntimeException("No such crank exists.");
+      
+      // The 1s follow the last part larger than 1.
+      int ω = size - 1 - last;
+      return ω == 0 ? parts[0] : above - ω;
+   }
+   
+   @Override
+   public int durfeeRank()
+   {
+      // The Durfee rank of an "empty" partition is undefined!
+      if (!started) throw new RuntimeException("No such Durfee rank exists.");
+      
+      return durfee;
+   }
+   
+   @Override
+   public int firstChangedIndex() { return changed; }
+   
+   /**
+    * Passes the view of each of the remaining partitions to the specified
+    * visitor, in reverse lexicographic order. The view is only valid during
+    * the call to the visitor.
+    * 
+    * @param visitor   the visitor
+    * 
+    * @throws NullPointerException if the visitor is <code>null</code>
+    */
+   public void forEachRemaining(Consumer<? super PartitionView> visitor)
+   {
+      // Tests if the given visitor is not null.
+      if (visitor == null) throw new NullPointerException("Visitor is null.");
+      
+      while (next()) visitor.accept(this);
+   }
+   
+   @Override
+   public int largestPart()
+   {
+      // Tests if the enumeration has started.
+      if (!started)
+         throw new NoSuchElementException("No such largest part exists.");
+      
+      return parts[0];
+   }
+   
+   @Override
+   public int multiplicity(int part)
+   {
+      int low = 0;
+      int high = numberOfParts();
+      
+      // Binary searches the first part ≤ the given part.
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (parts[mid] > part) low = mid + 1;
+         else high = mid;
+      }
+      
+      int count = 0;
+      
+      // Counts the run of parts equal to the given part.
+      for (int i = low; i < high && parts[i] == part; i++) count++;
+      
+      return count;
+   }
+   
+   /**
+    * Moves on to the next partition in reverse lexicographic order.
+    * 
+    * @return <code>true</code> if there is a next partition, or
+    *         <code>false</code> if the enumeration is over
+    */
+   public boolean next()
+   {
+      if (!started)
+      {
+         started = true;
+         return true;
+      }
+      
+      // Tests if the next partition would change a leading part, or would
+      // take the part after them below its range.
+      if (last < floor || last == floor && parts[last] == low) return false;
+      
+      // Every part before the last part larger than 1 is kept.
+      changed = last;
+      
+      if (parts[last] == 2)
+      {
+         // Splits the last 2 into two 1s, which takes the number ω of 1s up
+         // by 2, so the parts of ω + 1 and ω + 2 are no longer larger than
+         // it, and neither is the 2 if it was.
+         int ω = size - 1 - last;
+         counts[2]--;
+         if (ω < 2) above--;
+         above -= counts[ω + 1] + counts[ω + 2];
+         
+         parts[last--] = 1;
+         size++;
+         updateDurfeeRank();
+         return true;
+      }
+      
+      // Decrements the last part r + 1 > 2 and refills the tail with as many
+      // copies of r as fit in the t cells that follow it, and the remainder.
+      int r = parts[last] - 1;
+      int t = size - last;
+      parts[last] = r;
+      
+      while (t >= r)
+      {
+         parts[++last] = r;
+         t -= r;
+      }
+      
+      counts[r + 1]--;
+      counts[r] += last - changed + 1;
+      
+      if (t == 0)
+      {
+         size = last + 1;
+      }
+      else
+      {
+         size = last + 2;
+         
+         if (t > 1)
+         {
+            parts[++last] = t;
+            counts[t]++;
+         }
+      }
+      
+      // At most one 1 is left, so the parts larger than the number of 1s are
+      // either all of the parts or all of the parts larger than 1.
+      above = size - 1 - last == 0 ? size : last + 1;
+      
+      updateDurfeeRank();
+      return true;
+   }
+   
+   @Override
+   public int numberOfParts() { return started ? size : 0; }
+   
+   @Override
+   public int part(int k)
+   {
+      // Tests if k is valid.
+      if (k < 0 || k >= numberOfParts())
+         throw new IndexOutOfBoundsException("Illegal part index: " + k);
+      
+      return parts[k];
+   }
+   
+   @Override
+   public int rank()
+   {
+      // The rank of an "empty" partition is undefined!
+      if (!started) throw new RuntimeException("No such rank exists.");
+      
+      return parts[0] - size;
+   }
+   
+   @Override
+   public int smallestPart()
+   {
+      // Tests if the enumeration has started.
+      if (!started)
+         throw new NoSuchElementException("No such smallest part exists.");
+      
+      return parts[size - 1];
+   }
+   
+   @Override
+   public Partition toPartition()
+   {
+      int k = numberOfParts();
+      return new Partition(Arrays.copyOf(parts, Math.max(k, 1)), k);
+   }
+   
+   /**
+    * Counts the parts of the current partition from scratch: the
+    * multiplicities of the parts larger than 1, and the parts larger than the
+    * number of 1s.
+    */
+   private void updateCounts()
+   {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i <= last; i++) counts[parts[i]]++;
+      
+      int ω = size - 1 - last;
+      above = 0;
+      while (above < size && parts[above] > ω) above++;
+   }
+   
+   /**
+    * Updates the Durfee rank after the parts from the first changed part on
+    * have been rewritten. If the Durfee rank is <i>d</i>, it only depends on
+    * the parts up to index <i>d</i>, so it is unchanged unless the first
+    * changed part is among them; in that case, the new Durfee rank is at least
+    * the index of the first changed part, since the parts before it are still
+    * at least <i>d</i>, and it is rescanned from there.
+    */
+   private void updateDurfeeRank()
+   {
+      if (changed > durfee) return;
+      
+      int k = changed;
+      while (k < size && parts[k] > k) k++;
+      
+      durfee = k;
+   }
+   
+   @Override
+   public int weight() { return started ? n : 0; }
+   
+   /**
+    * Returns the weight of the specified partition to start an enumeration
+    * at.
+    * 
+    * @param p   the partition
+    * 
+    * @return the weight of the partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   static int weightOf(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      // Tests if the partition is "nonempty."
+      if (p.isEmpty())
+         throw new IllegalArgumentException("Illegal partition: " + p);
+      
+      return p.weight();
+   }
+}
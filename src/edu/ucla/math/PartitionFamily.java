@@ -0,0 +1,227 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+import java.util.function.Consumer;
+
+/**
+ * The families of partitions that the bijections of
+ * {@link PartitionBijections} map between. The partitions of <i>n</i> in a
+ * family are counted, indexed from 0 in reverse lexicographic order, and
+ * enumerated from any index on. The self-conjugate partitions are indexed and
+ * enumerated in the order of their diagonal hook lengths, which are the
+ * partitions into distinct odd parts.
+ * 
+ * @author Kris Torres
+ */
+public enum PartitionFamily
+{
+   /** The partitions into any parts. */
+   ALL(PartType.ALL, false),
+   
+   /** The partitions into distinct parts. */
+   DISTINCT(PartType.ALL, true),
+   
+   /** The partitions into distinct odd parts. */
+   DISTINCT_ODD(PartType.ODD, true),
+   
+   /** The partitions into even parts. */
+   EVEN(PartType.EVEN, false),
+   
+   /** The partitions into odd parts. */
+   ODD(PartType.ODD, false),
+   
+   /** The self-conjugate partitions. */
+   SELF_CONJUGATE(PartType.ODD, true);
+   
+   /** The kind of the parts of the partitions that are enumerated. */
+   private final PartType type;
+   
+   /** Whether the parts of the partitions that are enumerated are distinct. */
+   private final boolean distinct;
+   
+   /**
+    * Constructs a family whose partitions are enumerated as the partitions
+    * into the specified kind of parts.
+    * 
+    * @param type       the kind of the parts
+    * @param distinct   whether the parts are distinct
+    */
+   private PartitionFamily(PartType type, boolean distinct)
+   {
+      this.type = type;
+      this.distinct = distinct;
+   }
+   
+   /**
+    * Tests if the specified partition is in this family.
+    * 
+    * @param p   the partition
+    * 
+    * @return <code>true</code> if the partition is in this family, or
+    *         <code>false</code> otherwise
+    * 
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public boolean contains(Partition p)
+   {
+      // Tests if the given partition is not null.
+      if (p == null) throw new NullPointerException("Partition is null.");
+      
+      if (this == SELF_CONJUGATE)
+         return PartitionBijections.CUT_AND_STRETCH.isInDomain(p);
+      
+      if (distinct && !p.isDistinct()) return false;
+      
+      switch (type)
+      {
+         case EVEN:
+            return p.isEven();
+         case ODD:
+            return p.isOdd();
+         default:
+            return true;
+      }
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer in
+    * this family.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public BigInteger count(int n)
+   {
+      switch (this)
+      {
+         case ALL:
+            return PartitionCounts.count(n);
+         case DISTINCT:
+            return RestrictedPartitionCounts.distinctCount(n);
+         case DISTINCT_ODD:
+            return RestrictedPartitionCounts.distinctOddCount(n);
+         case EVEN:
+            return RestrictedPartitionCounts.evenCount(n);
+         case ODD:
+            return RestrictedPartitionCounts.oddCount(n);
+         default:
+            return RestrictedPartitionCounts.selfConjugateCount(n);
+      }
+   }
+   
+   /**
+    * Passes the specified number of partitions of the specified positive
+    * integer in this family, starting with the partition at the specified
+    * index, to the specified visitor in order. The partitions are enumerated
+    * in amortized O(1) time each and copied for the visitor, which may keep
+    * them.
+    * 
+    * @param n         the positive integer
+    * @param index     the index of the first partition
+    * @param count     the largest number of partitions to visit
+    * @param visitor   the visitor of the partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the index is out
+    *         of range
+    */
+   void forEach(int n, BigInteger index, long count,
+      Consumer<? super Partition> visitor)
+   {
+      boolean hooks = this == SELF_CONJUGATE;
+      Partition first = hooks
+         ? Partition.distinctOddFromIndex(n, index) : fromIndex(n, index);
+      
+      if (type == PartType.ALL && !distinct)
+      {
+         PartitionEnumerator all = new PartitionEnumerator(first);
+         for (long k = 0; k < count && all.next(); k++)
+            visitor.accept(all.toPartition());
+         
+         return;
+      }
+      
+      PartitionConstraints constraints = new PartitionConstraints();
+      constraints.withType(type);
+      if (distinct) constraints.withDistinctParts();
+      
+      ConstrainedPartitionEnumerator constrained =
+         new ConstrainedPartitionEnumerator(first, constraints);
+      
+      // Enumerates the hook lengths of the self-conjugate partitions in their
+      // place.
+      for (long k = 0; k < count && constrained.next(); k++)
+      {
+         Partition p = constrained.toPartition();
+         visitor.accept(hooks ? Partition.selfConjugate(p) : p);
+      }
+   }
+   
+   /**
+    * Returns the partition of the specified positive integer in this family
+    * at the specified index, in reverse lexicographic order. The index ranges
+    * from 0 up to the number of such partitions − 1.
+    * 
+    * @param n       the positive integer
+    * @param index   the index
+    * 
+    * @return the partition at the index
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1, or if the index is out
+    *         of range
+    * @throws NullPointerException if the index is <code>null</code>
+    */
+   public Partition fromIndex(int n, BigInteger index)
+   {
+      switch (this)
+      {
+         case ALL:
+            return Partition.fromIndex(n, index);
+         case DISTINCT:
+            return Partition.distinctFromIndex(n, index);
+         case DISTINCT_ODD:
+            return Partition.distinctOddFromIndex(n, index);
+         case EVEN:
+            return Partition.evenFromIndex(n, index);
+         case ODD:
+            return Partition.oddFromIndex(n, index);
+         default:
+            return Partition.selfConjugate(
+               Partition.distinctOddFromIndex(n, index));
+      }
+   }
+   
+   /**
+    * Returns the index of the specified partition among the partitions of its
+    * weight in this family, in reverse lexicographic order.
+    * 
+    * @param p   the partition
+    * 
+    * @return the index of the partition
+    * 
+    * @throws IllegalArgumentException if the partition contains no parts, or
+    *         if it is not in this family
+    * @throws NullPointerException if the partition is <code>null</code>
+    */
+   public BigInteger indexOf(Partition p)
+   {
+      switch (this)
+      {
+         case ALL:
+            return Partition.indexOf(p);
+         case DISTINCT:
+            return Partition.distinctIndexOf(p);
+         case DISTINCT_ODD:
+            return Partition.distinctOddIndexOf(p);
+         case EVEN:
+            return Partition.evenIndexOf(p);
+         case ODD:
+            return Partition.oddIndexOf(p);
+         default:
+            return Partition.distinctOddIndexOf(
+               PartitionBijections.CUT_AND_STRETCH.apply(p));
+      }
+   }
+}
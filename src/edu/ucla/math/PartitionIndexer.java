@@ -0,0 +1,147 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+
+/**
+ * A bijection between the partitions of <i>n</i> into parts of a given kind,
+ * either with repeated parts or with distinct parts, and the integers from 0
+ * to their number − 1, which follows the reverse lexicographic order of the
+ * enumerators. The index of a partition λ is the number of partitions that
+ * come before it: for each part λ<sub><i>j</i></sub>, these are the
+ * partitions that agree with λ on the parts before it and have a larger part
+ * in its place, of which there are
+ * <p>
+ * <i>T</i>(<i>r</i>, <i>b</i>) − <i>T</i>(<i>r</i>, <i>a</i>),
+ * <p>
+ * where <i>r</i> is the rest of <i>n</i> at the part, <i>T</i>(<i>r</i>,
+ * <i>k</i>) is the number of partitions of <i>r</i> into the <i>k</i>
+ * smallest parts of the kind, <i>a</i> is the number of parts of the kind up
+ * to λ<sub><i>j</i></sub>, and <i>b</i> is the number of parts of the kind
+ * that may follow the previous part. The counts are looked up in a shared
+ * {@link PartitionCountTable}, so once the table is warm, a partition is
+ * indexed with one lookup per part, and an index is turned back into a
+ * partition with one lookup per part and one per value skipped between
+ * consecutive parts, which is O(<i>n</i>) lookups in all.
+ * 
+ * @author Kris Torres
+ */
+final class PartitionIndexer
+{
+   /** The indexer of the partitions into any parts. */
+   static final PartitionIndexer ALL = new PartitionIndexer(
+      RestrictedPartitionCounts.BOUNDED, PartType.ALL, false);
+   
+   /** The indexer of the partitions into distinct parts. */
+   static final PartitionIndexer DISTINCT = new PartitionIndexer(
+      RestrictedPartitionCounts.DISTINCT, PartType.ALL, true);
+   
+   /** The indexer of the partitions into distinct odd parts. */
+   static final PartitionIndexer DISTINCT_ODD = new PartitionIndexer(
+      RestrictedPartitionCounts.DISTINCT_ODD, PartType.ODD, true);
+   
+   /** The indexer of the partitions into odd parts. */
+   static final PartitionIndexer ODD = new PartitionIndexer(
+      RestrictedPartitionCounts.ODD, PartType.ODD, false);
+   
+   /** The table of the numbers of partitions into the smallest parts. */
+   private final PartitionCountTable table;
+   
+   /** The kind of the parts. */
+   private final PartType type;
+   
+   /** Whether the parts are distinct. */
+   private final boolean distinct;
+   
+   /**
+    * Constructs an indexer of the partitions into the specified kind of parts
+    * that reads its counts from the specified table.
+    * 
+    * @param table      the table of counts, which must be of the same kind
+    * @param type       the kind of the parts
+    * @param distinct   whether the parts are distinct
+    */
+   private PartitionIndexer(PartitionCountTable table, PartType type,
+      boolean distinct)
+   {
+      this.table = table;
+      this.type = type;
+      this.distinct = distinct;
+   }
+   
+   /**
+    * Returns the index of the specified partition among the partitions of its
+    * weight into parts of the kind of this indexer. Every part must be of the
+    * kind, and the parts must be distinct if this indexer is for distinct
+    * parts.
+    * 
+    * @param p       the partition
+    * @param scale   the factor by which every part is divided first
+    * 
+    * @return the index
+    */
+   BigInteger indexOf(Partition p, int scale)
+   {
+      BigInteger index = BigInteger.ZERO;
+      int r = p.weight() / scale;
+      int b = Integer.MAX_VALUE;
+      
+      for (int k = 0; k < p.numberOfParts(); k++)
+      {
+         int a = (p.part(k) / scale - type.first()) / type.step() + 1;
+         
+         // Counts the partitions with a larger part in place of this part.
+         if (a < b)
+            index = index.add(table.count(r, b).subtract(table.count(r, a)));
+         
+         r -= p.part(k) / scale;
+         b = distinct ? a - 1 : a;
+      }
+      
+      return index;
+   }
+   
+   /**
+    * Returns the partition of the specified nonnegative integer into parts of
+    * the kind of this indexer at the specified index.
+    * 
+    * @param n       the nonnegative integer
+    * @param index   the index
+    * @param scale   the factor by which every part is multiplied last
+    * 
+    * @return the partition
+    * 
+    * @throws IllegalArgumentException if the index is negative, or if it is
+    *         not less than the number of partitions
+    */
+   Partition partition(int n, BigInteger index, int scale)
+   {
+      // Tests if the index is in range.
+      if (index.signum() < 0 || index.compareTo(table.count(n)) >= 0)
+         throw new IllegalArgumentException("Illegal index: " + index);
+      
+      PartitionBuilder builder = new PartitionBuilder();
+      int r = n;
+      int b = Integer.MAX_VALUE;
+      
+      while (r > 0)
+      {
+         // Finds the smallest number a of smallest parts such that the
+         // partitions into them, which come last, reach back to the index.
+         BigInteger total = table.count(r, b);
+         BigInteger target = total.subtract(index);
+         int a = Math.min(b, r < type.first() ? 0
+            : (r - type.first()) / type.step() + 1);
+         
+         while (a > 1 && table.count(r, a - 1).compareTo(target) >= 0) a--;
+         
+         int part = type.part(a - 1);
+         index = index.subtract(total.subtract(table.count(r, a)));
+         builder.append(part * scale);
+         
+         r -= part;
+         b = distinct ? a - 1 : a;
+      }
+      
+      return builder.build();
+   }
+}
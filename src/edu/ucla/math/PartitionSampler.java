@@ -0,0 +1,235 @@
+package edu.ucla.math;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A Boltzmann sampler of random partitions whose weights are at least a fixed
+ * positive integer <i>n</i>. For each allowed part <i>i</i> in increasing
+ * order, the sampler draws the multiplicity of <i>i</i> from a geometric law
+ * with the rate 1 − <i>x<sup>i</sup></i>, where
+ * <i>x</i> = <i>e</i><sup>−π/√(6<i>n</i>)</sup>, until the parts add up to at
+ * least <i>n</i>.
+ * <p>
+ * The rates depend only on <i>n</i> and the part, so they are computed once
+ * and shared by all of the samples drawn by the sampler. A sampler is not
+ * thread-safe; each thread should use its own sampler.
+ * 
+ * @author Kris Torres
+ */
+public final class PartitionSampler
+{
+   /**
+    * The value of the square root of the Riemann zeta function ζ(<i>z</i>)
+    * evaluated at <i>z</i> = 2.
+    */
+   private static final double SQRT_ZETA_2 = Math.PI / Math.sqrt(6.0);
+   
+   /** The initial number of precomputed rates. */
+   private static final int DEFAULT_CAPACITY = 64;
+   
+   /** The minimum weight of the sampled partitions. */
+   private final int n;
+   
+   /** The kind of parts in the sampled partitions. */
+   private final PartType type;
+   
+   /** The source of random numbers uniformly distributed in [0, 1). */
+   private final DoubleSupplier random;
+   
+   /** The Boltzmann parameter <i>x</i>. */
+   private final double x;
+   
+   /**
+    * The reciprocals of the geometric rates, indexed like the allowed parts.
+    * The array grows as larger parts are needed.
+    */
+   private double[] scales;
+   
+   /** The number of precomputed reciprocals of the rates. */
+   private int computed;
+   
+   /** The builder into which the parts of each sample are appended. */
+   private final PartitionBuilder builder = new PartitionBuilder();
+   
+   /** The metrics to which the cost of each sample is reported. */
+   private SamplerMetrics metrics = SamplerMetrics.NONE;
+   
+   /**
+    * Constructs a sampler of random partitions of at least the specified
+    * positive integer.
+    * 
+    * @param n   the positive integer
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public PartitionSampler(int n) { this(n, PartType.ALL); }
+   
+   /**
+    * Constructs a sampler of random partitions of at least the specified
+    * positive integer into the specified kind of parts.
+    * 
+    * @param n      the positive integer
+    * @param type   the kind of parts
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the kind of parts is <code>null</code>
+    */
+   public PartitionSampler(int n, PartType type)
+   {
+      this(n, type, new SplittableRandom());
+   }
+   
+   /**
+    * Constructs a sampler of random partitions of at least the specified
+    * positive integer into the specified kind of parts, using the specified
+    * random number generator.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the random number generator
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the kind of parts is <code>null</code>,
+    *         or if the random number generator is <code>null</code>
+    */
+   public PartitionSampler(int n, PartType type, Random random)
+   {
+      this(n, type, RandomSources.doubleSource(random));
+   }
+   
+   /**
+    * Constructs a sampler of random partitions of at least the specified
+    * positive integer into the specified kind of parts, using the specified
+    * random number generator.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the random number generator
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the kind of parts is <code>null</code>,
+    *         or if the random number generator is <code>null</code>
+    */
+   public PartitionSampler(int n, PartType type, SplittableRandom random)
+   {
+      this(n, type, RandomSources.doubleSource(random));
+   }
+   
+   /**
+    * Constructs a sampler of random partitions of at least the specified
+    * positive integer into the specified kind of parts, using the specified
+    * source of uniformly distributed random numbers.
+    * 
+    * @param n        the positive integer
+    * @param type     the kind of parts
+    * @param random   the source of random numbers in [0, 1)
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the kind of parts is <code>null</code>
+    */
+   private PartitionSampler(int n, PartType type, DoubleSupplier random)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given kind of parts is not null.
+      if (type == null) throw new NullPointerException("Part type is null.");
+      
+      this.n = n;
+      this.type = type;
+      this.random = random;
+      this.x = Math.exp(-SQRT_ZETA_2 / Math.sqrt(n));
+      this.scales = new double[DEFAULT_CAPACITY];
+   }
+   
+   /**
+    * Returns a random partition such that the sum of its parts is at least the
+    * positive integer of this sampler.
+    * 
+    * @return a random partition
+    */
+   public Partition sample()
+   {
+      builder.clear();
+      
+      // Generates a random partition.
+      for (int k = 0; builder.weight() < n; k++)
+      {
+         double u = random.getAsDouble();
+         
+         // log u is undefined!
+         if (u > 0.0)
+         {
+            int count = (int) Math.floor(-Math.log(u) * scale(k));
+            
+            // Appends the parts to the partition.
+            builder.append(type.part(k), count);
+         }
+      }
+      
+      return builder.build();
+   }
+   
+   /**
+    * Returns a random partition such that the sum of its parts is exactly the
+    * positive integer of this sampler. The sampler keeps on randomizing until
+    * it gets lucky.
+    * 
+    * @return a random partition
+    */
+   public Partition sampleExactly()
+   {
+      long start = System.nanoTime();
+      long attempts = 0;
+      Partition p;
+      
+      // Keeps on randomizing until we get lucky!
+      do { p = sample(); attempts++; }
+      while (p.weight() != n);
+      
+      metrics.record(attempts, System.nanoTime() - start);
+      return p;
+   }
+   
+   /**
+    * Returns the reciprocal 1 / (1 − <i>x<sup>i</sup></i>) of the geometric
+    * rate of the <i>k</i>-th allowed part <i>i</i>.
+    * 
+    * @param k   the index of the allowed part
+    * 
+    * @return the reciprocal of the rate
+    */
+   private double scale(int k)
+   {
+      // Precomputes the rates of the next allowed parts.
+      if (k >= computed)
+      {
+         if (k >= scales.length)
+            scales = Arrays.copyOf(scales, Math.max(k + 1, scales.length * 2));
+         
+         for (; computed < scales.length; computed++)
+            scales[computed] = 1 / (1 - Math.pow(x, type.part(computed)));
+      }
+      
+      return scales[k];
+   }
+   
+   /**
+    * Sets the metrics to which this sampler reports the number of attempts and
+    * the time taken by each sample.
+    * 
+    * @param metrics   the metrics
+    * 
+    * @throws NullPointerException if the metrics are <code>null</code>
+    */
+   public void setMetrics(SamplerMetrics metrics)
+   {
+      // Tests if the given metrics are not null.
+      if (metrics == null) throw new NullPointerException("Metrics are null.");
+      
+      this.metrics = metrics;
+   }
+}
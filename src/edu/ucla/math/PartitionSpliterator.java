@@ -0,0 +1,210 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the partitions of a positive integer <i>n</i> in reverse
+ * lexicographic order, which splits the partitions along prefixes of their
+ * parts. A spliterator covers the partitions that start with some fixed parts
+ * followed by a part in a range; it splits the range in two so that both
+ * halves hold about as many partitions, and once the range has a single part,
+ * it appends that part to the prefix and splits the range of the next part.
+ * The sizes of the subtrees are exact: there are <i>p</i>(<i>r</i> − <i>a</i>,
+ * parts ≤ <i>a</i>) partitions of the rest <i>r</i> of <i>n</i> whose next part
+ * is <i>a</i>. Each spliterator traverses its partitions with its own
+ * {@link PartitionEnumerator}.
+ * 
+ * @author Kris Torres
+ */
+final class PartitionSpliterator implements Spliterator<Partition>
+{
+   /** The characteristics of every spliterator over partitions. */
+   private static final int CHARACTERISTICS =
+      ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+   
+   /** The integer whose partitions are traversed. */
+   private final int n;
+   
+   /** The leading parts of the partitions in decreasing order. */
+   private int[] prefix;
+   
+   /** The rest of <i>n</i> after the leading parts. */
+   private int rest;
+   
+   /** The smallest value of the part after the leading parts. */
+   private int low;
+   
+   /** The largest value of the part after the leading parts. */
+   private int high;
+   
+   /**
+    * The number of partitions left, or <code>Long.MAX_VALUE</code> if it does
+    * not fit in a long.
+    */
+   private long size;
+   
+   /** The enumerator of the partitions, once the traversal has started. */
+   private PartitionEnumerator enumerator;
+   
+   /**
+    * Constructs a spliterator over all of the partitions of the specified
+    * positive integer.
+    * 
+    * @param n   the positive integer
+    */
+   PartitionSpliterator(int n) { this(n, new int[0], n, 1, n); }
+   
+   /**
+    * Constructs a spliterator over the partitions of the specified positive
+    * integer that start with the specified parts, followed by a part in the
+    * specified range.
+    * 
+    * @param n        the positive integer
+    * @param prefix   the leading parts in decreasing order
+    * @param rest     the rest of <i>n</i> after the leading parts
+    * @param low      the smallest value of the part after the leading parts
+    * @param high     the largest value of the part after the leading parts
+    */
+   private PartitionSpliterator(int n, int[] prefix, int rest, int low,
+      int high)
+   {
+      this.n = n;
+      this.prefix = prefix;
+      this.rest = rest;
+      this.low = low;
+      this.high = high;
+      this.size = toSize(count(low, high));
+   }
+   
+   @Override
+   public int characteristics()
+   {
+      // The sizes are only known if they fit in a long.
+      if (size == Long.MAX_VALUE) return CHARACTERISTICS;
+      
+      return CHARACTERISTICS | SIZED | SUBSIZED;
+   }
+   
+   /**
+    * Returns the number of partitions of the rest of <i>n</i> whose largest
+    * part is in the specified range.
+    * 
+    * @param from   the smallest value of the largest part
+    * @param to     the largest value of the largest part
+    * 
+    * @return the number of partitions
+    */
+   private BigInteger count(int from, int to)
+   {
+      BigInteger total = BigInteger.ZERO;
+      
+      for (int a = from; a <= to; a++)
+      {
+         total = total.add(
+            RestrictedPartitionCounts.countWithPartsAtMost(rest - a, a));
+      }
+      
+      return total;
+   }
+   
+   @Override
+   public long estimateSize() { return size; }
+   
+   @Override
+   public void forEachRemaining(Consumer<? super Partition> action)
+   {
+      // Tests if the given action is not null.
+      if (action == null) throw new NullPointerException("Action is null.");
+      
+      PartitionEnumerator e = enumerator();
+      while (e.next()) action.accept(e.toPartition());
+      
+      size = 0;
+   }
+   
+   /**
+    * Returns the enumerator of the partitions of this spliterator, which is
+    * created when the traversal starts.
+    * 
+    * @return the enumerator
+    */
+   private PartitionEnumerator enumerator()
+   {
+      if (enumerator == null)
+         enumerator = new PartitionEnumerator(n, prefix, low, high);
+      
+      return enumerator;
+   }
+   
+   @Override
+   public boolean tryAdvance(Consumer<? super Partition> action)
+   {
+      // Tests if the given action is not null.
+      if (action == null) throw new NullPointerException("Action is null.");
+      
+      PartitionEnumerator e = enumerator();
+      if (!e.next()) return false;
+      
+      action.accept(e.toPartition());
+      if (size != Long.MAX_VALUE) size--;
+      
+      return true;
+   }
+   
+   @Override
+   public Spliterator<Partition> trySplit()
+   {
+      // A spliterator is not split once its traversal has started.
+      if (enumerator != null) return null;
+      
+      // Appends the next part to the prefix while its range has a single
+      // value, until the rest of n is used up.
+      while (low == high)
+      {
+         if (rest == high) return null;
+         
+         prefix = Arrays.copyOf(prefix, prefix.length + 1);
+         prefix[prefix.length - 1] = high;
+         rest -= high;
+         low = 1;
+         high = Math.min(high, rest);
+      }
+      
+      // Moves the split value down until the partitions whose next part is at
+      // least that value make up half of the partitions, leaving at least one
+      // value to this spliterator.
+      BigInteger total = count(low, high);
+      BigInteger upper = BigInteger.ZERO;
+      int split = high + 1;
+      
+      while (split > low + 1 && upper.shiftLeft(1).compareTo(total) < 0)
+      {
+         split--;
+         upper = upper.add(count(split, split));
+      }
+      
+      // The first half of the encounter order has the larger parts.
+      PartitionSpliterator first =
+         new PartitionSpliterator(n, prefix, rest, split, high);
+      high = split - 1;
+      size = toSize(total.subtract(upper));
+      
+      return first;
+   }
+   
+   /**
+    * Returns the specified number of partitions as a long, or
+    * <code>Long.MAX_VALUE</code> if it does not fit in a long.
+    * 
+    * @param count   the number of partitions
+    * 
+    * @return the size
+    */
+   private static long toSize(BigInteger count)
+   {
+      return count.bitLength() < 63 ? count.longValue() : Long.MAX_VALUE;
+   }
+}
@@ -0,0 +1,126 @@
+package edu.ucla.math;
+
+/**
+ * A read-only view of a partition that may change over time, such as the
+ * current partition of a {@link PartitionEnumerator}. The parts of the
+ * partition are in decreasing order. A view is only valid until its owner
+ * moves on to the next partition, so a visitor that keeps a partition must
+ * copy it with {@link #toPartition()}. The statistics of a view are kept up
+ * to date by its owner as the partition changes, rather than recomputed from
+ * the parts on every call.
+ * 
+ * @author Kris Torres
+ */
+public interface PartitionView
+{
+   /**
+    * Returns the <b>crank</b> of this partition. For a partition λ, let
+    * <i>b</i>(λ) denote the largest part in λ, ω(λ) denote the multiplicity of
+    * 1 in λ, and μ(λ) denote the number of parts in λ larger than ω(λ). If
+    * ω(λ) = 0, the crank <i>c</i>(λ) = <i>b</i>(λ). Otherwise,
+    * <i>c</i>(λ) = μ(λ) − ω(λ).
+    * 
+    * @return the crank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   int crank();
+   
+   /**
+    * Returns the <b>Durfee rank</b> of this partition. The Durfee rank of a
+    * partition λ is the largest number <i>k</i> such that λ contains at least
+    * <i>k</i> parts ≥ <i>k</i>.
+    * 
+    * @return the Durfee rank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   int durfeeRank();
+   
+   /**
+    * Returns the index of the first part of this partition that may differ
+    * from the previous partition of this view. The parts before it are
+    * unchanged, so a visitor that keeps its own statistics only needs to
+    * update them from that index on. For the first partition, the index is
+    * <code>0</code>.
+    * 
+    * @return the index of the first changed part
+    */
+   int firstChangedIndex();
+   
+   /**
+    * Returns the largest part (the part at index <code>0</code>) in this
+    * partition.
+    * 
+    * @return the largest part
+    * 
+    * @throws java.util.NoSuchElementException if this partition contains no
+    *         parts
+    */
+   int largestPart();
+   
+   /**
+    * Returns the multiplicity of the specified part in this partition.
+    * 
+    * @param part   the part to be counted
+    * 
+    * @return the multiplicity of the part
+    */
+   int multiplicity(int part);
+   
+   /**
+    * Returns the number of parts in this partition.
+    * 
+    * @return the number of parts
+    */
+   int numberOfParts();
+   
+   /**
+    * Returns the <i>k</i>-th part in this partition.
+    * 
+    * @param k   the index of the part
+    * 
+    * @return the <i>k</i>-th part
+    * 
+    * @throws IndexOutOfBoundsException if
+    *         <code>k < 0 || k >= numberOfParts()</code>
+    */
+   int part(int k);
+   
+   /**
+    * Returns the <b>rank</b> of this partition. The rank of a partition λ is
+    * the number obtained by subtracting the number of parts in λ from the
+    * largest part in λ.
+    * 
+    * @return the rank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   int rank();
+   
+   /**
+    * Returns the smallest part (the part at index
+    * <code>numberOfParts() - 1</code>) in this partition.
+    * 
+    * @return the smallest part
+    * 
+    * @throws java.util.NoSuchElementException if this partition contains no
+    *         parts
+    */
+   int smallestPart();
+   
+   /**
+    * Returns a new {@link Partition} containing the parts in this partition,
+    * which does not change with this view.
+    * 
+    * @return a copy of this partition
+    */
+   Partition toPartition();
+   
+   /**
+    * Returns the weight of this partition, that is, the sum of its parts.
+    * 
+    * @return the weight
+    */
+   int weight();
+}
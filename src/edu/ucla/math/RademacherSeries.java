@@ -0,0 +1,678 @@
+package edu.ucla.math;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An evaluator of single numbers <i>p</i>(<i>n</i>) of partitions of huge
+ * <i>n</i> by the Hardy–Ramanujan–Rademacher series
+ * <p>
+ * <i>p</i>(<i>n</i>) = 4/(24<i>n</i> − 1) Σ <i>S<sub>k</sub></i>(<i>n</i>)
+ * (cosh(μ/<i>k</i>) − (<i>k</i>/μ) sinh(μ/<i>k</i>)),
+ * <p>
+ * where μ = π√(24<i>n</i> − 1)/6, the sum is over all positive integers
+ * <i>k</i>, and <i>S<sub>k</sub></i>(<i>n</i>) = Σ (−1)<sup><i>l</i></sup>
+ * cos((6<i>l</i> + 1)π/(6<i>k</i>)) over the integers 0 ≤ <i>l</i> <
+ * 2<i>k</i> such that (3<i>l</i>² + <i>l</i>)/2 ≡ −<i>n</i> (mod <i>k</i>).
+ * This is Selberg's form of the Kloosterman-type sum
+ * <i>A<sub>k</sub></i>(<i>n</i>) =
+ * √(<i>k</i>/3) <i>S<sub>k</sub></i>(<i>n</i>).
+ * <p>
+ * Unlike {@link PartitionCounts}, no table is built, so a single count of
+ * <i>n</i> = 10<sup>9</sup> takes seconds. The number of terms is chosen with
+ * Lehmer's bound on the remainder of the series, and each term is computed
+ * only as precisely as its size requires: the first terms, which are as large
+ * as <i>p</i>(<i>n</i>) itself, in binary floating-point arithmetic with as
+ * many bits as needed, and the tail terms, whose integer parts and the bits
+ * after the binary point of the sum fit in a <code>double</code>, in
+ * <code>double</code> arithmetic. The terms are computed in parallel on a
+ * fork/join pool, and their sum is rounded to the nearest integer.
+ * 
+ * @author Kris Torres
+ * 
+ * @see PartitionCounts
+ */
+public final class RademacherSeries
+{
+   /** The smallest weight for which the series is evaluated. */
+   private static final int MIN_WEIGHT = 1000;
+   
+   /**
+    * The largest number of bits of a term computed with doubles, counting the
+    * bits of its integer part and the bits after the binary point of the sum,
+    * which leaves 3 of the 53 bits of a double for its rounding errors.
+    */
+   private static final int DOUBLE_PRECISION = 50;
+   
+   /** The extra bits of precision that absorb the rounding errors. */
+   private static final int GUARD_BITS = 32;
+   
+   /** The maximum number of double-precision terms computed by a task. */
+   private static final int THRESHOLD = 256;
+   
+   /** The integer whose number of partitions is evaluated. */
+   private final int n;
+   
+   /** The value of μ = π√(24<i>n</i> − 1)/6. */
+   private final Real mu;
+   
+   /** The value of π. */
+   private final Real pi;
+   
+   /** The number of bits after the binary point of the sum of the terms. */
+   private final int fraction;
+   
+   /**
+    * Prepares the evaluation of the number of partitions of the specified
+    * integer with the specified number of terms.
+    * 
+    * @param n       the integer
+    * @param terms   the number of terms
+    */
+   private RademacherSeries(int n, int terms)
+   {
+      this.n = n;
+      this.fraction = 32 - Integer.numberOfLeadingZeros(terms) + GUARD_BITS;
+      
+      int p = precision(1);
+      this.pi = pi(p);
+      Real root = sqrt(Real.valueOf(24L * n - 1), p);
+      this.mu = pi.multiply(root, p).divide(Real.valueOf(6), p);
+   }
+   
+   /**
+    * Returns the <i>k</i>-th term of the series, computed in
+    * <code>double</code> arithmetic.
+    * 
+    * @param k   the index of the term
+    * 
+    * @return the term
+    */
+   private double doubleTerm(int k)
+   {
+      double z = Math.PI * Math.sqrt(24.0 * n - 1) / 6 / k;
+      double s = 0.0;
+      
+      // Adds up the cosines over the solutions l of the congruence, where
+      // r = (3l² + l)/2 mod k is updated incrementally.
+      for (int l = 0, r = 0, target = (k - n % k) % k; l < 2 * k; l++)
+      {
+         if (r == target)
+         {
+            double c = Math.cos((6.0 * l + 1) * Math.PI / (6.0 * k));
+            s += l % 2 == 0 ? c : -c;
+         }
+         
+         r = (int) ((r + 3L * l + 2) % k);
+      }
+      
+      return 4 * s * (Math.cosh(z) - Math.sinh(z) / z) / (24.0 * n - 1);
+   }
+   
+   /**
+    * Tests if the <i>k</i>-th term of the series is small enough to be
+    * computed in <code>double</code> arithmetic, that is, if the bits of its
+    * integer part and the bits after the binary point of the sum fit in
+    * {@link #DOUBLE_PRECISION} bits.
+    * 
+    * @param k   the index of the term
+    * 
+    * @return <code>true</code> if the term is computed with doubles, or
+    *         <code>false</code> otherwise
+    */
+   private boolean isSmall(int k)
+   {
+      return magnitude(k) + fraction <= DOUBLE_PRECISION;
+   }
+   
+   /**
+    * Returns the number of bits of the integer part of the <i>k</i>-th term of
+    * the series, which is at most about μ/(<i>k</i> ln 2), and negative for
+    * the terms smaller than 1/2.
+    * 
+    * @param k   the index of the term
+    * 
+    * @return the number of bits of the integer part
+    */
+   private int magnitude(int k)
+   {
+      double z = Math.PI * Math.sqrt(24.0 * n - 1) / 6 / k;
+      double bits = (z + Math.log(8.0 * k / (24.0 * n - 1))) / Math.log(2);
+      return (int) Math.ceil(bits);
+   }
+   
+   /**
+    * Returns the number of bits of precision needed by the <i>k</i>-th term
+    * of the series, that is, the number of bits of its integer part plus the
+    * number of bits after the binary point of the sum, and the guard bits.
+    * 
+    * @param k   the index of the term
+    * 
+    * @return the number of bits of precision
+    */
+   private int precision(int k)
+   {
+      return magnitude(k) + fraction + GUARD_BITS;
+   }
+   
+   /**
+    * Returns the <i>k</i>-th term of the series, computed with the specified
+    * number of bits of precision, as a fixed-point number with the number of
+    * bits after the binary point of the sum.
+    * 
+    * @param k   the index of the term
+    * @param p   the number of bits of precision
+    * 
+    * @return the term times 2<sup><i>fraction</i></sup>, rounded down
+    */
+   private BigInteger term(int k, int p)
+   {
+      Real pi = this.pi.round(p);
+      Real s = Real.ZERO;
+      
+      // Adds up the cosines over the solutions l of the congruence, where
+      // r = (3l² + l)/2 mod k is updated incrementally.
+      for (int l = 0, r = 0, target = (k - n % k) % k; l < 2 * k; l++)
+      {
+         if (r == target)
+         {
+            // Reduces the angle (6l + 1)π/(6k) into [0, π].
+            long a = 6L * l + 1 <= 6L * k ? 6L * l + 1 : 12L * k - 6L * l - 1;
+            Real angle = pi.multiply(Real.valueOf(a), p)
+               .divide(Real.valueOf(6L * k), p);
+            Real c = cos(angle, p);
+            s = s.add(l % 2 == 0 ? c : c.negate(), p);
+         }
+         
+         r = (int) ((r + 3L * l + 2) % k);
+      }
+      
+      Real z = mu.round(p).divide(Real.valueOf(k), p);
+      Real e = exp(z, p);
+      Real inverse = Real.ONE.divide(e, p);
+      Real cosh = e.add(inverse, p).shift(-1);
+      Real sinh = e.subtract(inverse, p).shift(-1);
+      Real f = cosh.subtract(sinh.divide(z, p), p);
+      
+      Real term = s.multiply(f, p).shift(2)
+         .divide(Real.valueOf(24L * n - 1), p);
+      return term.toFixedPoint(fraction);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer,
+    * evaluated in the common fork/join pool.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return <i>p</i>(<i>n</i>)
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger count(int n)
+   {
+      return count(n, ForkJoinPool.commonPool());
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer,
+    * evaluated in the specified fork/join pool. Small counts are looked up in
+    * {@link PartitionCounts} instead.
+    * 
+    * @param n      the nonnegative integer
+    * @param pool   the fork/join pool
+    * 
+    * @return <i>p</i>(<i>n</i>)
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    * @throws NullPointerException if the pool is <code>null</code>
+    */
+   public static BigInteger count(int n, ForkJoinPool pool)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the given pool is not null.
+      if (pool == null) throw new NullPointerException("Pool is null.");
+      
+      if (n < MIN_WEIGHT) return PartitionCounts.count(n);
+      
+      int terms = numberOfTerms(n);
+      RademacherSeries series = new RademacherSeries(n, terms);
+      BigInteger sum = pool.invoke(series.new TermTask(1, terms + 1));
+      
+      // Rounds the sum to the nearest integer.
+      int f = series.fraction;
+      return sum.add(BigInteger.ONE.shiftLeft(f - 1)).shiftRight(f);
+   }
+   
+   /**
+    * Returns the cosine of the specified angle in [0, π] with the specified
+    * number of bits of precision after the binary point. The angle is halved
+    * <i>h</i> times, the Taylor series of the cosine is summed, and the
+    * double-angle formula cos 2<i>x</i> = 2 cos² <i>x</i> − 1 is applied
+    * <i>h</i> times.
+    * 
+    * @param angle   the angle
+    * @param p       the number of bits of precision
+    * 
+    * @return the cosine of the angle
+    */
+   private static Real cos(Real angle, int p)
+   {
+      int h = (int) Math.sqrt(p) / 2 + 1;
+      int w = p + 2 * h + 8;
+      Real y = angle.shift(-h);
+      Real square = y.multiply(y, w);
+      Real sum = Real.ONE;
+      Real term = Real.ONE;
+      
+      for (long i = 1; term.signum() != 0 && term.top() >= -w; i++)
+      {
+         Real divisor = Real.valueOf((2 * i - 1) * (2 * i));
+         term = term.multiply(square, w).divide(divisor, w).negate();
+         sum = sum.add(term, w);
+      }
+      
+      for (int i = 0; i < h; i++)
+         sum = sum.multiply(sum, w).shift(1).subtract(Real.ONE, w);
+      
+      return sum.round(p);
+   }
+   
+   /**
+    * Returns the exponential of the specified nonnegative number with the
+    * specified number of bits of precision. The number is halved until it is
+    * small, the Taylor series of the exponential is summed, and the sum is
+    * squared as many times as the number was halved.
+    * 
+    * @param x   the nonnegative number
+    * @param p   the number of bits of precision
+    * 
+    * @return <i>e<sup>x</sup></i>
+    */
+   private static Real exp(Real x, int p)
+   {
+      int squarings = Math.max(x.top(), 0) + (int) Math.sqrt(p) / 2 + 1;
+      int w = p + squarings + 8;
+      Real y = x.shift(-squarings);
+      Real sum = Real.ONE;
+      Real term = Real.ONE;
+      
+      for (long i = 1; term.signum() != 0 && term.top() >= -w; i++)
+      {
+         term = term.multiply(y, w).divide(Real.valueOf(i), w);
+         sum = sum.add(term, w);
+      }
+      
+      for (int i = 0; i < squarings; i++) sum = sum.multiply(sum, w);
+      
+      return sum.round(p);
+   }
+   
+   /**
+    * Returns the number of terms after which the remainder of the series for
+    * the number of partitions of the specified integer is less than 1/4, by
+    * Lehmer's bound
+    * 44π²/(225√3) <i>N</i><sup>−1/2</sup> + π√2/75
+    * (<i>N</i>/(<i>n</i> − 1))<sup>1/2</sup> sinh(π√(2<i>n</i>/3)/<i>N</i>)
+    * on the remainder after <i>N</i> terms.
+    * 
+    * @param n   the integer
+    * 
+    * @return the number of terms
+    */
+   private static int numberOfTerms(int n)
+   {
+      int low = 1;
+      int high = 1;
+      
+      // Doubles the number of terms until the bound holds.
+      while (remainder(n, high) >= 0.25)
+      {
+         low = high;
+         high *= 2;
+      }
+      
+      // Finds the smallest number of terms for which the bound holds.
+      while (low < high)
+      {
+         int middle = (low + high) >>> 1;
+         if (remainder(n, middle) >= 0.25) low = middle + 1;
+         else high = middle;
+      }
+      
+      return high;
+   }
+   
+   /**
+    * Returns the value of π with the specified number of bits of precision,
+    * computed with Machin's formula π = 16 arctan(1/5) − 4 arctan(1/239).
+    * 
+    * @param p   the number of bits of precision
+    * 
+    * @return π
+    */
+   private static Real pi(int p)
+   {
+      int bits = p + GUARD_BITS;
+      BigInteger pi = arctanOfInverse(5, bits).shiftLeft(4)
+         .subtract(arctanOfInverse(239, bits).shiftLeft(2));
+      return new Real(pi, -bits).round(p);
+   }
+   
+   /**
+    * Returns the value of arctan(1/<i>x</i>) as a fixed-point number with the
+    * specified number of bits after the binary point.
+    * 
+    * @param x      the integer greater than 1
+    * @param bits   the number of bits after the binary point
+    * 
+    * @return arctan(1/<i>x</i>) times 2<sup><i>bits</i></sup>
+    */
+   private static BigInteger arctanOfInverse(int x, int bits)
+   {
+      BigInteger square = BigInteger.valueOf((long) x * x);
+      BigInteger power = BigInteger.ONE.shiftLeft(bits)
+         .divide(BigInteger.valueOf(x));
+      BigInteger sum = power;
+      
+      // Adds the terms (−1)^k / ((2k + 1) x^(2k + 1)).
+      for (int k = 1; power.signum() != 0; k++)
+      {
+         power = power.divide(square);
+         BigInteger term = power.divide(BigInteger.valueOf(2 * k + 1));
+         sum = k % 2 != 0 ? sum.subtract(term) : sum.add(term);
+      }
+      
+      return sum;
+   }
+   
+   /**
+    * Returns Lehmer's bound on the remainder of the series for the number of
+    * partitions of the specified integer after the specified number of terms.
+    * 
+    * @param n       the integer
+    * @param terms   the number of terms
+    * 
+    * @return the bound on the remainder
+    */
+   private static double remainder(int n, int terms)
+   {
+      double first = 44 * Math.PI * Math.PI / (225 * Math.sqrt(3));
+      double second = Math.PI * Math.sqrt(2) / 75;
+      double z = Math.PI * Math.sqrt(2.0 * n / 3) / terms;
+      return first / Math.sqrt(terms)
+         + second * Math.sqrt(terms / (n - 1.0)) * Math.sinh(z);
+   }
+   
+   /**
+    * Returns the square root of the specified positive number with the
+    * specified number of bits of precision.
+    * 
+    * @param x   the positive number
+    * @param p   the number of bits of precision
+    * 
+    * @return √<i>x</i>
+    */
+   private static Real sqrt(Real x, int p)
+   {
+      // Scales the mantissa so that its root has p bits, keeping the exponent
+      // even.
+      int shift = 2 * p + 2 - x.mantissa.bitLength();
+      if (((x.exponent - shift) & 1) != 0) shift++;
+      BigInteger m = shift >= 0 ? x.mantissa.shiftLeft(shift)
+         : x.mantissa.shiftRight(-shift);
+      
+      // Runs Newton's method from above until the root stops decreasing.
+      BigInteger root = BigInteger.ONE.shiftLeft((m.bitLength() + 1) / 2);
+      
+      while (true)
+      {
+         BigInteger next = root.add(m.divide(root)).shiftRight(1);
+         if (next.compareTo(root) >= 0) break;
+         root = next;
+      }
+      
+      return new Real(root, (x.exponent - shift) / 2).round(p);
+   }
+   
+   /** A fork/join task that adds up a range of terms of the series. */
+   private final class TermTask extends RecursiveTask<BigInteger>
+   {
+      /** The serialization version of this class. */
+      private static final long serialVersionUID = 1L;
+      
+      /** The index of the first term of the range. */
+      private final int from;
+      
+      /** The index after the last term of the range. */
+      private final int to;
+      
+      /**
+       * Constructs a task that adds up the specified range of terms.
+       * 
+       * @param from   the index of the first term of the range
+       * @param to     the index after the last term of the range
+       */
+      private TermTask(int from, int to)
+      {
+         this.from = from;
+         this.to = to;
+      }
+      
+      @Override
+      protected BigInteger compute()
+      {
+         // Gives every high-precision term a task of its own, and splits the
+         // double-precision terms into short ranges.
+         if (to - from > 1 && (!isSmall(from) || to - from > THRESHOLD))
+         {
+            int middle = (from + to) >>> 1;
+            TermTask left = new TermTask(from, middle);
+            left.fork();
+            BigInteger right = new TermTask(middle, to).compute();
+            return right.add(left.join());
+         }
+         
+         BigInteger sum = BigInteger.ZERO;
+         double small = 0.0;
+         
+         for (int k = from; k < to; k++)
+         {
+            if (isSmall(k)) small += doubleTerm(k);
+            else sum = sum.add(term(k, precision(k) + GUARD_BITS));
+         }
+         
+         // The double-precision terms are converted to fixed point exactly.
+         BigDecimal scaled = new BigDecimal(Math.scalb(small, fraction));
+         return sum.add(scaled.toBigInteger());
+      }
+   }
+   
+   /**
+    * An immutable binary floating-point number <i>m</i> ·
+    * 2<sup><i>e</i></sup> with an arbitrarily long mantissa <i>m</i>. The
+    * arithmetic operations round their results down to a given number of bits.
+    */
+   private static final class Real
+   {
+      /** The number 0. */
+      static final Real ZERO = new Real(BigInteger.ZERO, 0);
+      
+      /** The number 1. */
+      static final Real ONE = new Real(BigInteger.ONE, 0);
+      
+      /** The mantissa. */
+      final BigInteger mantissa;
+      
+      /** The exponent. */
+      final int exponent;
+      
+      /**
+       * Constructs the number with the specified mantissa and exponent.
+       * 
+       * @param mantissa   the mantissa
+       * @param exponent   the exponent
+       */
+      Real(BigInteger mantissa, int exponent)
+      {
+         this.mantissa = mantissa;
+         this.exponent = exponent;
+      }
+      
+      /**
+       * Returns the sum of this number and the specified number.
+       * 
+       * @param x   the number to be added
+       * @param p   the number of bits of precision
+       * 
+       * @return the sum
+       */
+      Real add(Real x, int p)
+      {
+         if (x.signum() == 0) return round(p);
+         if (signum() == 0) return x.round(p);
+         
+         // Drops the bits that are far below the precision of the sum.
+         int floor = Math.max(top(), x.top()) - p - 2;
+         Real a = truncate(floor);
+         Real b = x.truncate(floor);
+         
+         int e = Math.min(a.exponent, b.exponent);
+         BigInteger sum = a.mantissa.shiftLeft(a.exponent - e)
+            .add(b.mantissa.shiftLeft(b.exponent - e));
+         return new Real(sum, e).round(p);
+      }
+      
+      /**
+       * Returns the quotient of this number and the specified nonzero number.
+       * 
+       * @param x   the divisor
+       * @param p   the number of bits of precision
+       * 
+       * @return the quotient
+       */
+      Real divide(Real x, int p)
+      {
+         int shift = p + x.mantissa.bitLength() - mantissa.bitLength() + 1;
+         BigInteger m = shift >= 0 ? mantissa.shiftLeft(shift)
+            : mantissa.shiftRight(-shift);
+         return new Real(m.divide(x.mantissa), exponent - shift - x.exponent)
+            .round(p);
+      }
+      
+      /**
+       * Returns the product of this number and the specified number.
+       * 
+       * @param x   the factor
+       * @param p   the number of bits of precision
+       * 
+       * @return the product
+       */
+      Real multiply(Real x, int p)
+      {
+         return new Real(mantissa.multiply(x.mantissa), exponent + x.exponent)
+            .round(p);
+      }
+      
+      /**
+       * Returns the negation of this number.
+       * 
+       * @return the negation
+       */
+      Real negate() { return new Real(mantissa.negate(), exponent); }
+      
+      /**
+       * Returns this number with its mantissa rounded down to the specified
+       * number of bits.
+       * 
+       * @param p   the number of bits of precision
+       * 
+       * @return the rounded number
+       */
+      Real round(int p)
+      {
+         int excess = mantissa.bitLength() - p;
+         if (excess <= 0) return this;
+         return new Real(mantissa.shiftRight(excess), exponent + excess);
+      }
+      
+      /**
+       * Returns this number times 2<sup><i>bits</i></sup>.
+       * 
+       * @param bits   the power of 2
+       * 
+       * @return the scaled number
+       */
+      Real shift(int bits) { return new Real(mantissa, exponent + bits); }
+      
+      /**
+       * Returns the sign of this number.
+       * 
+       * @return −1, 0 or 1 if this number is negative, zero or positive
+       */
+      int signum() { return mantissa.signum(); }
+      
+      /**
+       * Returns the difference of this number and the specified number.
+       * 
+       * @param x   the number to be subtracted
+       * @param p   the number of bits of precision
+       * 
+       * @return the difference
+       */
+      Real subtract(Real x, int p) { return add(x.negate(), p); }
+      
+      /**
+       * Returns this number as a fixed-point number with the specified number
+       * of bits after the binary point.
+       * 
+       * @param bits   the number of bits after the binary point
+       * 
+       * @return this number times 2<sup><i>bits</i></sup>, rounded down
+       */
+      BigInteger toFixedPoint(int bits)
+      {
+         int shift = exponent + bits;
+         return shift >= 0 ? mantissa.shiftLeft(shift)
+            : mantissa.shiftRight(-shift);
+      }
+      
+      /**
+       * Returns the smallest integer <i>t</i> such that the magnitude of this
+       * number is less than 2<sup><i>t</i></sup>.
+       * 
+       * @return the exponent of the leading bit, plus 1
+       */
+      int top() { return exponent + mantissa.bitLength(); }
+      
+      /**
+       * Returns this number with the bits below 2<sup><i>floor</i></sup>
+       * dropped.
+       * 
+       * @param floor   the exponent of the lowest bit to keep
+       * 
+       * @return the truncated number
+       */
+      Real truncate(int floor)
+      {
+         if (exponent >= floor) return this;
+         return new Real(mantissa.shiftRight(floor - exponent), floor);
+      }
+      
+      /**
+       * Returns the number equal to the specified integer.
+       * 
+       * @param value   the integer
+       * 
+       * @return the number
+       */
+      static Real valueOf(long value)
+      {
+         return new Real(BigInteger.valueOf(value), 0);
+      }
+   }
+}
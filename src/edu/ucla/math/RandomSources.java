@@ -0,0 +1,136 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * The adapters through which the samplers draw from either kind of random
+ * number generator, and the uniform draws of large integers that they share.
+ * 
+ * @author Kris Torres
+ */
+final class RandomSources
+{
+   /** Prevents the instantiation of this class. */
+   private RandomSources() {}
+   
+   /**
+    * Returns a source of random numbers uniformly distributed in [0, 1) that
+    * draws from the specified random number generator.
+    * 
+    * @param random   the random number generator
+    * 
+    * @return the source of random numbers
+    * 
+    * @throws NullPointerException if the random number generator is
+    *         <code>null</code>
+    */
+   static DoubleSupplier doubleSource(Random random)
+   {
+      // Tests if the given random number generator is not null.
+      if (random == null)
+         throw new NullPointerException("Random number generator is null.");
+      
+      return random::nextDouble;
+   }
+   
+   /**
+    * Returns a source of random numbers uniformly distributed in [0, 1) that
+    * draws from the specified random number generator.
+    * 
+    * @param random   the random number generator
+    * 
+    * @return the source of random numbers
+    * 
+    * @throws NullPointerException if the random number generator is
+    *         <code>null</code>
+    */
+   static DoubleSupplier doubleSource(SplittableRandom random)
+   {
+      // Tests if the given random number generator is not null.
+      if (random == null)
+         throw new NullPointerException("Random number generator is null.");
+      
+      return random::nextDouble;
+   }
+   
+   /**
+    * Returns a source of random 64-bit integers that draws from the specified
+    * random number generator.
+    * 
+    * @param random   the random number generator
+    * 
+    * @return the source of random integers
+    * 
+    * @throws NullPointerException if the random number generator is
+    *         <code>null</code>
+    */
+   static LongSupplier longSource(Random random)
+   {
+      // Tests if the given random number generator is not null.
+      if (random == null)
+         throw new NullPointerException("Random number generator is null.");
+      
+      return random::nextLong;
+   }
+   
+   /**
+    * Returns a source of random 64-bit integers that draws from the specified
+    * random number generator.
+    * 
+    * @param random   the random number generator
+    * 
+    * @return the source of random integers
+    * 
+    * @throws NullPointerException if the random number generator is
+    *         <code>null</code>
+    */
+   static LongSupplier longSource(SplittableRandom random)
+   {
+      // Tests if the given random number generator is not null.
+      if (random == null)
+         throw new NullPointerException("Random number generator is null.");
+      
+      return random::nextLong;
+   }
+   
+   /**
+    * Returns a uniformly random integer in [0, <i>bound</i>) drawn from the
+    * specified source of random 64-bit integers.
+    * 
+    * @param random   the source of random integers
+    * @param bound    the positive upper bound (exclusive)
+    * 
+    * @return the random integer
+    */
+   static BigInteger nextBigInteger(LongSupplier random, BigInteger bound)
+   {
+      int bits = bound.bitLength();
+      byte[] magnitude = new byte[(bits + 7) / 8];
+      BigInteger z;
+      
+      // Draws integers with as many bits as the bound until one is smaller.
+      do
+      {
+         for (int i = 0; i < magnitude.length; i += 8)
+         {
+            long r = random.getAsLong();
+            for (int k = i; k < Math.min(i + 8, magnitude.length); k++)
+            {
+               magnitude[k] = (byte) r;
+               r >>>= 8;
+            }
+         }
+         
+         // Clears the bits above the bit length of the bound.
+         magnitude[0] &= (byte) (0xFF >>> (8 * magnitude.length - bits));
+         z = new BigInteger(1, magnitude);
+      }
+      while (z.compareTo(bound) >= 0);
+      
+      return z;
+   }
+}
@@ -0,0 +1,166 @@
+package edu.ucla.math;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only partition, whose parts are in decreasing order. Both
+ * {@link Partition}, which stores one entry per part, and
+ * {@link MultiplicityPartition}, which stores one entry per distinct part,
+ * are readable partitions, so code that only reads the parts and the
+ * statistics of a partition accepts either representation.
+ * 
+ * @author Kris Torres
+ */
+public interface ReadablePartition
+{
+   /**
+    * Tests if this partition contains the specified part.
+    * 
+    * @param part   the part to be searched
+    * 
+    * @return <code>true</code> if this partition contains the part, or
+    *         <code>false</code> otherwise
+    */
+   boolean contains(int part);
+   
+   /**
+    * Returns the <b>crank</b> of this partition. For a partition λ, let
+    * <i>b</i>(λ) denote the largest part in λ, ω(λ) denote the multiplicity of
+    * 1 in λ, and μ(λ) denote the number of parts in λ larger than ω(λ). If
+    * ω(λ) = 0, the crank <i>c</i>(λ) = <i>b</i>(λ). Otherwise,
+    * <i>c</i>(λ) = μ(λ) − ω(λ).
+    * 
+    * @return the crank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   int crank();
+   
+   /**
+    * Returns the <b>Durfee rank</b> of this partition. The Durfee rank of a
+    * partition λ is the largest number <i>k</i> such that λ contains at least
+    * <i>k</i> parts ≥ <i>k</i>.
+    * 
+    * @return the Durfee rank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   int durfeeRank();
+   
+   /**
+    * Tests if this partition contains distinct parts.
+    * 
+    * @return <code>true</code> if this partition contains distinct parts, or
+    * <code>false</code> otherwise
+    */
+   boolean isDistinct();
+   
+   /**
+    * Tests if this partition is "empty."
+    * 
+    * @return <code>true</code> if this partition contains no parts, or
+    *         <code>false</code> otherwise
+    */
+   boolean isEmpty();
+   
+   /**
+    * Tests if this partition is an even partition, that is, if all of the parts
+    * in the partition are even.
+    * 
+    * @return <code>true</code> if this partition is an even partition, or
+    *         <code>false</code> otherwise
+    */
+   boolean isEven();
+   
+   /**
+    * Tests if this partition is an odd partition, that is, if all of the parts
+    * in the partition are odd.
+    * 
+    * @return <code>true</code> if this partition is an odd partition, or
+    *         <code>false</code> otherwise
+    */
+   boolean isOdd();
+   
+   /**
+    * Returns the <b>largest part</b> (the part at index <code>0</code>) in this
+    * partition.
+    * 
+    * @return the largest part
+    * 
+    * @throws NoSuchElementException if this partition contains no parts
+    */
+   int largestPart();
+   
+   /**
+    * Returns the <b>multiplicity</b> of the specified part in this partition.
+    * 
+    * @param part   the part to be counted
+    * 
+    * @return the multiplicity of the part
+    */
+   int multiplicity(int part);
+   
+   /**
+    * Returns the <b>number of parts</b> in this partition.
+    * 
+    * @return the number of parts
+    */
+   int numberOfParts();
+   
+   /**
+    * Returns the <i>k</i>-th part in this partition.
+    * 
+    * @param k   the index of the part
+    * 
+    * @return the <i>k</i>-th part
+    * 
+    * @throws IndexOutOfBoundsException if
+    *         <code>k < 0 || k >= numberOfParts()</code>
+    */
+   int part(int k);
+   
+   /**
+    * Returns the <b>rank</b> of this partition. The rank of a partition λ is
+    * the number obtained by subtracting the number of parts in λ from the
+    * largest part in λ.
+    * 
+    * @return the rank
+    * 
+    * @throws RuntimeException if this partition contains no parts
+    */
+   int rank();
+   
+   /**
+    * Returns the <b>smallest part</b> (the part at index
+    * <code>numberOfParts() - 1</code>) in this partition.
+    * 
+    * @return the smallest part
+    * 
+    * @throws NoSuchElementException if this partition contains no parts
+    */
+   int smallestPart();
+   
+   /**
+    * Returns an array containing all of the parts in this partition in
+    * decreasing order.
+    * 
+    * @return the array of parts
+    */
+   Integer[] toArray();
+   
+   /**
+    * Returns a {@link Partition} containing the parts in this partition, which
+    * is independent of this partition.
+    * 
+    * @return the partition
+    */
+   Partition toPartition();
+   
+   /**
+    * Returns the <b>weight</b> <i>n</i> of this partition, that is, the sum of
+    * the parts in the partition.
+    * 
+    * @return the weight, or 0 if this partition contains no parts
+    */
+   int weight();
+}
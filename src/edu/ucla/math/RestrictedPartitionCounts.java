@@ -0,0 +1,200 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+
+/**
+ * The numbers of partitions of <i>n</i> in the restricted classes that the
+ * bijections work on: partitions into even parts, odd parts, distinct parts,
+ * distinct even parts and distinct odd parts, self-conjugate partitions, and
+ * partitions with boundedly many parts or bounded parts.
+ * <p>
+ * The counts are kept in shared {@link PartitionCountTable}s, which grow
+ * lazily and can drop rows when memory is tight, so a count that has already
+ * been computed is looked up in constant time. The classes that are in
+ * bijection with one another share their tables: partitions into odd parts
+ * with partitions into distinct parts, by Euler's theorem, self-conjugate
+ * partitions with partitions into distinct odd parts, by their diagonal hooks,
+ * and partitions into at most <i>k</i> parts with partitions into parts no
+ * larger than <i>k</i>, by conjugation.
+ * 
+ * @author Kris Torres
+ * 
+ * @see PartitionCounts
+ */
+public final class RestrictedPartitionCounts
+{
+   /** The counts of partitions into parts no larger than a bound. */
+   static final PartitionCountTable BOUNDED =
+      new PartitionCountTable(PartType.ALL, false);
+   
+   /** The counts of partitions into distinct parts. */
+   static final PartitionCountTable DISTINCT =
+      new PartitionCountTable(PartType.ALL, true);
+   
+   /** The counts of partitions into distinct odd parts. */
+   static final PartitionCountTable DISTINCT_ODD =
+      new PartitionCountTable(PartType.ODD, true);
+   
+   /** The counts of partitions into odd parts with a bound on the parts. */
+   static final PartitionCountTable ODD =
+      new PartitionCountTable(PartType.ODD, false);
+   
+   /** Prevents instantiation of this class. */
+   private RestrictedPartitionCounts() {}
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into at most the specified number of parts.
+    * 
+    * @param n   the nonnegative integer
+    * @param k   the maximum number of parts
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0 or <i>k</i> < 0
+    */
+   public static BigInteger countWithAtMostParts(int n, int k)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if k is nonnegative.
+      if (k < 0)
+         throw new IllegalArgumentException("Illegal number of parts: " + k);
+      
+      return BOUNDED.count(n, k);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into parts no larger than the specified integer.
+    * 
+    * @param n   the nonnegative integer
+    * @param m   the largest allowed part
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0 or <i>m</i> < 0
+    */
+   public static BigInteger countWithPartsAtMost(int n, int m)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if m is nonnegative.
+      if (m < 0) throw new IllegalArgumentException("Illegal part: " + m);
+      
+      return BOUNDED.count(n, m);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into distinct parts.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger distinctCount(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return DISTINCT.count(n);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into distinct even parts, which are twice the partitions of <i>n</i>/2
+    * into distinct parts.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger distinctEvenCount(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return n % 2 != 0 ? BigInteger.ZERO : DISTINCT.count(n / 2);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into distinct odd parts.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger distinctOddCount(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return DISTINCT_ODD.count(n);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into even parts, which are twice the partitions of <i>n</i>/2.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger evenCount(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return n % 2 != 0 ? BigInteger.ZERO : PartitionCounts.count(n / 2);
+   }
+   
+   /**
+    * Returns the number of partitions of the specified nonnegative integer
+    * into odd parts, which by Euler's theorem is the number of partitions of
+    * <i>n</i> into distinct parts.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger oddCount(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return DISTINCT.count(n);
+   }
+   
+   /**
+    * Returns the number of self-conjugate partitions of the specified
+    * nonnegative integer, which is the number of partitions of <i>n</i> into
+    * distinct odd parts, namely their diagonal hook lengths.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the number of partitions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger selfConjugateCount(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return DISTINCT_ODD.count(n);
+   }
+}
@@ -0,0 +1,27 @@
+package edu.ucla.math;
+
+/**
+ * A receiver of the cost of drawing random partitions by rejection. A sampler
+ * reports to its metrics once per accepted sample, with the number of attempts
+ * that it took, including the accepted one, and the time that they took.
+ * Samplers may report from several threads at once, so implementations should
+ * be thread-safe.
+ * 
+ * @author Kris Torres
+ * 
+ * @see SamplerStatistics
+ */
+@FunctionalInterface
+public interface SamplerMetrics
+{
+   /** The metrics that ignore every report. */
+   SamplerMetrics NONE = (attempts, nanos) -> {};
+   
+   /**
+    * Records an accepted sample.
+    * 
+    * @param attempts   the number of attempts, including the accepted one
+    * @param nanos      the time taken by the attempts, in nanoseconds
+    */
+   void record(long attempts, long nanos);
+}
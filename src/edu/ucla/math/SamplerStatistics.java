@@ -0,0 +1,108 @@
+package edu.ucla.math;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics that add up the accepted samples, the attempts and the time reported
+ * by samplers, and derive the acceptance rate and the cost per accepted sample
+ * from them. The totals are kept in {@link LongAdder}s, so that many threads
+ * can report at once without contention.
+ * 
+ * @author Kris Torres
+ */
+public final class SamplerStatistics implements SamplerMetrics
+{
+   /** The number of accepted samples. */
+   private final LongAdder samples = new LongAdder();
+   
+   /** The number of attempts. */
+   private final LongAdder attempts = new LongAdder();
+   
+   /** The time taken by the attempts, in nanoseconds. */
+   private final LongAdder nanos = new LongAdder();
+   
+   /**
+    * Returns the fraction of the attempts that have been accepted.
+    * 
+    * @return the acceptance rate, or 0 if no attempts have been made
+    */
+   public double acceptanceRate()
+   {
+      long a = attempts.sum();
+      return a == 0 ? 0.0 : (double) samples.sum() / a;
+   }
+   
+   /**
+    * Returns the average number of attempts per accepted sample.
+    * 
+    * @return the number of attempts per sample, or 0 if no samples have been
+    *         accepted
+    */
+   public double attemptsPerSample()
+   {
+      long s = samples.sum();
+      return s == 0 ? 0.0 : (double) attempts.sum() / s;
+   }
+   
+   /**
+    * Returns the average time per accepted sample.
+    * 
+    * @return the number of nanoseconds per sample, or 0 if no samples have
+    *         been accepted
+    */
+   public double nanosPerSample()
+   {
+      long s = samples.sum();
+      return s == 0 ? 0.0 : (double) nanos.sum() / s;
+   }
+   
+   /**
+    * Returns the number of attempts.
+    * 
+    * @return the number of attempts
+    */
+   public long numberOfAttempts() { return attempts.sum(); }
+   
+   /**
+    * Returns the number of accepted samples.
+    * 
+    * @return the number of samples
+    */
+   public long numberOfSamples() { return samples.sum(); }
+   
+   @Override
+   public void record(long attempts, long nanos)
+   {
+      this.samples.increment();
+      this.attempts.add(attempts);
+      this.nanos.add(nanos);
+   }
+   
+   /** Clears all of the totals. */
+   public void reset()
+   {
+      samples.reset();
+      attempts.reset();
+      nanos.reset();
+   }
+   
+   /**
+    * Returns a string representation of these statistics.
+    * 
+    * @return a string representation of these statistics
+    */
+   @Override
+   public String toString()
+   {
+      return String.format("%d samples, %d attempts (%.4g per sample), "
+         + "%.4g ms per sample", numberOfSamples(), numberOfAttempts(),
+         attemptsPerSample(), nanosPerSample() / 1e6);
+   }
+   
+   /**
+    * Returns the total time taken by the attempts.
+    * 
+    * @return the number of nanoseconds
+    */
+   public long totalNanos() { return nanos.sum(); }
+}
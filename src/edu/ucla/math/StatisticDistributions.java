@@ -0,0 +1,442 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The distributions of the rank and the crank over all of the partitions of
+ * <i>n</i>, which are computed from their generating functions instead of by
+ * enumerating the partitions. The number <i>N</i>(<i>m</i>, <i>n</i>) of
+ * partitions of <i>n</i> with rank <i>m</i> has the generating function of
+ * Atkin and Swinnerton-Dyer
+ * <p>
+ * Σ <i>N</i>(<i>m</i>, <i>n</i>) <i>q<sup>n</sup></i> =
+ * (1/(<i>q</i>)<sub>∞</sub>) Σ<sub><i>k</i> ≥ 1</sub>
+ * (−1)<sup><i>k</i>−1</sup>
+ * <i>q</i><sup><i>k</i>(3<i>k</i>−1)/2 + |<i>m</i>|<i>k</i></sup>
+ * (1 − <i>q<sup>k</sup></i>),
+ * <p>
+ * and the number <i>M</i>(<i>m</i>, <i>n</i>) of partitions of <i>n</i> with
+ * crank <i>m</i> has the generating function of Andrews and Garvan, which is
+ * the same with <i>k</i>(<i>k</i> − 1)/2 in place of <i>k</i>(3<i>k</i> −
+ * 1)/2 for all <i>n</i> > 1. Since 1/(<i>q</i>)<sub>∞</sub> is the generating
+ * function of <i>p</i>(<i>n</i>), each count is an alternating sum of
+ * O(min(√<i>n</i>, <i>n</i>/|<i>m</i>|)) partition numbers, so a whole row of
+ * a distribution takes O(<i>n</i> log <i>n</i>) time once the partition
+ * numbers are known.
+ * <p>
+ * The exact rows are computed with {@link BigInteger}s from the shared
+ * {@link PartitionCounts}. The tables up to <i>n</i> are computed modulo a
+ * given modulus with <code>long</code> arithmetic, and their rows are filled
+ * in parallel on a fork/join pool. Working modulo a large prime, such as
+ * 2<sup>61</sup> − 1, is enough to check identities between the counts, for
+ * example the Dyson congruences
+ * <i>N</i>(<i>r</i>, 5, 5<i>n</i> + 4) = <i>p</i>(5<i>n</i> + 4)/5.
+ * <p>
+ * Every row <i>k</i> holds the counts for the ranks or cranks <i>m</i> from
+ * −<i>k</i> to <i>k</i>, where the count for <i>m</i> is at index
+ * <i>m</i> + <i>k</i>. Row 0 is a single 0, since the "empty" partition has
+ * neither a rank nor a crank.
+ * 
+ * @author Kris Torres
+ * 
+ * @see Partition#rank()
+ * @see Partition#crank()
+ */
+public final class StatisticDistributions
+{
+   /** The largest allowed modulus. */
+   private static final long MAX_MODULUS = 1L << 62;
+   
+   /** Prevents instantiation of this class. */
+   private StatisticDistributions() {}
+   
+   /**
+    * Returns the partition numbers up to the specified integer modulo the
+    * specified modulus, computed with Euler's pentagonal number recurrence.
+    * 
+    * @param n         the largest integer
+    * @param modulus   the modulus
+    * 
+    * @return the partition numbers modulo the modulus
+    */
+   private static long[] counts(int n, long modulus)
+   {
+      long[] p = new long[n + 1];
+      p[0] = 1 % modulus;
+      
+      for (int m = 1; m <= n; m++)
+      {
+         long sum = 0;
+         
+         // Adds the terms for k = 1, −1, 2, −2, … in pairs of signs.
+         for (int k = 1; k * (3 * k - 1) / 2 <= m; k++)
+         {
+            long term = p[m - k * (3 * k - 1) / 2];
+            int i = m - k * (3 * k + 1) / 2;
+            if (i >= 0) term = mod(term + p[i], modulus);
+            sum = mod(k % 2 != 0 ? sum + term : sum - term, modulus);
+         }
+         
+         p[m] = sum;
+      }
+      
+      return p;
+   }
+   
+   /**
+    * Returns the numbers of partitions of the specified nonnegative integer
+    * with each crank, where the number with crank <i>m</i> is at index
+    * <i>m</i> + <i>n</i>.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the crank distribution
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger[] crankDistribution(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return distribution(n, true);
+   }
+   
+   /**
+    * Passes the crank distribution of every nonnegative integer up to the
+    * specified integer, modulo the specified modulus, with the integer to the
+    * specified sink. The rows are computed in parallel in the specified
+    * fork/join pool, and the sink is called from its threads, so it must be
+    * thread-safe, but it is never called twice with the same integer. No
+    * table is kept, so the rows can be reduced as they are computed.
+    * 
+    * @param n         the largest integer
+    * @param modulus   the modulus, which is at most 2<sup>62</sup>
+    * @param sink      the sink of the rows
+    * @param pool      the fork/join pool
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0, or if the modulus is
+    *         not positive or larger than 2<sup>62</sup>
+    * @throws NullPointerException if the sink is <code>null</code>, or if the
+    *         pool is <code>null</code>
+    */
+   public static void crankRows(int n, long modulus,
+      ObjIntConsumer<long[]> sink, ForkJoinPool pool)
+   {
+      rows(n, modulus, true, sink, pool);
+   }
+   
+   /**
+    * Returns the crank distributions of every nonnegative integer up to the
+    * specified integer, modulo the specified modulus. Row <i>k</i> of the
+    * table is the crank distribution of <i>k</i>, and the rows are computed
+    * in parallel in the common fork/join pool. The table has
+    * (<i>n</i> + 1)<sup>2</sup> entries; for larger <i>n</i>,
+    * {@link #crankRows(int, long, ObjIntConsumer, ForkJoinPool)} passes the
+    * rows on without keeping them.
+    * 
+    * @param n         the largest integer
+    * @param modulus   the modulus, which is at most 2<sup>62</sup>
+    * 
+    * @return the table of crank distributions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0, or if the modulus is
+    *         not positive or larger than 2<sup>62</sup>
+    */
+   public static long[][] crankTable(int n, long modulus)
+   {
+      long[][] table = new long[Math.max(n + 1, 0)][];
+      rows(n, modulus, true, (row, k) -> table[k] = row,
+         ForkJoinPool.commonPool());
+      return table;
+   }
+   
+   /**
+    * Returns the exact rank or crank distribution of the specified
+    * nonnegative integer.
+    * 
+    * @param n       the nonnegative integer
+    * @param crank   whether the distribution is of the crank
+    * 
+    * @return the distribution
+    */
+   private static BigInteger[] distribution(int n, boolean crank)
+   {
+      BigInteger[] row = new BigInteger[2 * n + 1];
+      row[0] = BigInteger.ZERO;
+      
+      // The "empty" partition has neither a rank nor a crank.
+      for (int m = 0; n > 0 && m <= n; m++)
+      {
+         BigInteger sum = BigInteger.ZERO;
+         
+         // Adds the terms q^(e + mk) − q^(e + mk + k) for k = 1, 2, …, with
+         // alternating signs.
+         for (int k = 1, e = exponent(k, crank); e + m * k <= n;
+            e = exponent(++k, crank))
+         {
+            int i = n - e - m * k;
+            BigInteger term = PartitionCounts.count(i);
+            if (i >= k) term = term.subtract(PartitionCounts.count(i - k));
+            sum = k % 2 != 0 ? sum.add(term) : sum.subtract(term);
+         }
+         
+         row[n + m] = sum;
+         row[n - m] = sum;
+      }
+      
+      // The generating function of the crank fails for n = 1, whose single
+      // partition [1] has crank −1.
+      if (crank && n == 1)
+      {
+         row[0] = BigInteger.ONE;
+         row[1] = BigInteger.ZERO;
+         row[2] = BigInteger.ZERO;
+      }
+      
+      return row;
+   }
+   
+   /**
+    * Returns the exponent <i>k</i>(3<i>k</i> − 1)/2 of the rank or
+    * <i>k</i>(<i>k</i> − 1)/2 of the crank.
+    * 
+    * @param k       the index of the term
+    * @param crank   whether the exponent is of the crank
+    * 
+    * @return the exponent
+    */
+   private static int exponent(int k, boolean crank)
+   {
+      return crank ? k * (k - 1) / 2 : k * (3 * k - 1) / 2;
+   }
+   
+   /**
+    * Returns the specified integer modulo the specified modulus, for an
+    * integer between −<i>modulus</i> and 2<i>modulus</i>.
+    * 
+    * @param a         the integer
+    * @param modulus   the modulus
+    * 
+    * @return the integer modulo the modulus
+    */
+   private static long mod(long a, long modulus)
+   {
+      return a < 0 ? a + modulus : a >= modulus ? a - modulus : a;
+   }
+   
+   /**
+    * Returns the numbers of partitions of the specified nonnegative integer
+    * with each rank, where the number with rank <i>m</i> is at index
+    * <i>m</i> + <i>n</i>.
+    * 
+    * @param n   the nonnegative integer
+    * 
+    * @return the rank distribution
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0
+    */
+   public static BigInteger[] rankDistribution(int n)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      return distribution(n, false);
+   }
+   
+   /**
+    * Passes the rank distribution of every nonnegative integer up to the
+    * specified integer, modulo the specified modulus, with the integer to the
+    * specified sink. The rows are computed in parallel in the specified
+    * fork/join pool, and the sink is called from its threads, so it must be
+    * thread-safe, but it is never called twice with the same integer. No
+    * table is kept, so the rows can be reduced as they are computed.
+    * 
+    * @param n         the largest integer
+    * @param modulus   the modulus, which is at most 2<sup>62</sup>
+    * @param sink      the sink of the rows
+    * @param pool      the fork/join pool
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0, or if the modulus is
+    *         not positive or larger than 2<sup>62</sup>
+    * @throws NullPointerException if the sink is <code>null</code>, or if the
+    *         pool is <code>null</code>
+    */
+   public static void rankRows(int n, long modulus,
+      ObjIntConsumer<long[]> sink, ForkJoinPool pool)
+   {
+      rows(n, modulus, false, sink, pool);
+   }
+   
+   /**
+    * Returns the rank distributions of every nonnegative integer up to the
+    * specified integer, modulo the specified modulus. Row <i>k</i> of the
+    * table is the rank distribution of <i>k</i>, and the rows are computed in
+    * parallel in the common fork/join pool. The table has
+    * (<i>n</i> + 1)<sup>2</sup> entries; for larger <i>n</i>,
+    * {@link #rankRows(int, long, ObjIntConsumer, ForkJoinPool)} passes the
+    * rows on without keeping them.
+    * 
+    * @param n         the largest integer
+    * @param modulus   the modulus, which is at most 2<sup>62</sup>
+    * 
+    * @return the table of rank distributions
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0, or if the modulus is
+    *         not positive or larger than 2<sup>62</sup>
+    */
+   public static long[][] rankTable(int n, long modulus)
+   {
+      long[][] table = new long[Math.max(n + 1, 0)][];
+      rows(n, modulus, false, (row, k) -> table[k] = row,
+         ForkJoinPool.commonPool());
+      return table;
+   }
+   
+   /**
+    * Returns the rank or crank distribution of the specified nonnegative
+    * integer modulo the specified modulus.
+    * 
+    * @param p         the partition numbers modulo the modulus
+    * @param n         the nonnegative integer
+    * @param modulus   the modulus
+    * @param crank     whether the distribution is of the crank
+    * 
+    * @return the distribution modulo the modulus
+    */
+   private static long[] row(long[] p, int n, long modulus, boolean crank)
+   {
+      long[] row = new long[2 * n + 1];
+      
+      // The "empty" partition has neither a rank nor a crank.
+      for (int m = 0; n > 0 && m <= n; m++)
+      {
+         long sum = 0;
+         
+         // Adds the terms q^(e + mk) − q^(e + mk + k) for k = 1, 2, …, with
+         // alternating signs.
+         for (int k = 1, e = exponent(k, crank); e + m * k <= n;
+            e = exponent(++k, crank))
+         {
+            int i = n - e - m * k;
+            long term = p[i];
+            if (i >= k) term = mod(term - p[i - k], modulus);
+            sum = mod(k % 2 != 0 ? sum + term : sum - term, modulus);
+         }
+         
+         row[n + m] = sum;
+         row[n - m] = sum;
+      }
+      
+      // The generating function of the crank fails for n = 1, whose single
+      // partition [1] has crank −1.
+      if (crank && n == 1)
+      {
+         row[0] = 1 % modulus;
+         row[1] = 0;
+         row[2] = 0;
+      }
+      
+      return row;
+   }
+   
+   /**
+    * Computes the rank or crank distributions of every nonnegative integer up
+    * to the specified integer modulo the specified modulus in the specified
+    * pool, and passes them to the specified sink.
+    * 
+    * @param n         the largest integer
+    * @param modulus   the modulus
+    * @param crank     whether the distributions are of the crank
+    * @param sink      the sink of the rows
+    * @param pool      the fork/join pool
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 0, or if the modulus is
+    *         not positive or larger than 2<sup>62</sup>
+    * @throws NullPointerException if the sink is <code>null</code>, or if the
+    *         pool is <code>null</code>
+    */
+   private static void rows(int n, long modulus, boolean crank,
+      ObjIntConsumer<long[]> sink, ForkJoinPool pool)
+   {
+      // Tests if n is nonnegative.
+      if (n < 0) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      // Tests if the modulus is in range.
+      if (modulus < 1 || modulus > MAX_MODULUS)
+         throw new IllegalArgumentException("Illegal modulus: " + modulus);
+      
+      // Tests if the given sink is not null.
+      if (sink == null) throw new NullPointerException("Sink is null.");
+      
+      // Tests if the given pool is not null.
+      if (pool == null) throw new NullPointerException("Pool is null.");
+      
+      long[] p = counts(n, modulus);
+      pool.invoke(new RowAction(p, 0, n + 1, modulus, crank, sink));
+   }
+   
+   /** A fork/join action that computes the distributions of a range of rows. */
+   private static final class RowAction extends RecursiveAction
+   {
+      /** The serialization version of this class. */
+      private static final long serialVersionUID = 1L;
+      
+      /** The partition numbers modulo the modulus. */
+      private final long[] p;
+      
+      /** The first row of the range. */
+      private final int from;
+      
+      /** The row after the last row of the range. */
+      private final int to;
+      
+      /** The modulus. */
+      private final long modulus;
+      
+      /** Whether the distributions are of the crank. */
+      private final boolean crank;
+      
+      /** The sink of the rows. */
+      private final ObjIntConsumer<long[]> sink;
+      
+      /**
+       * Constructs an action that computes the specified range of rows.
+       * 
+       * @param p         the partition numbers modulo the modulus
+       * @param from      the first row of the range
+       * @param to        the row after the last row of the range
+       * @param modulus   the modulus
+       * @param crank     whether the distributions are of the crank
+       * @param sink      the sink of the rows
+       */
+      private RowAction(long[] p, int from, int to, long modulus,
+         boolean crank, ObjIntConsumer<long[]> sink)
+      {
+         this.p = p;
+         this.from = from;
+         this.to = to;
+         this.modulus = modulus;
+         this.crank = crank;
+         this.sink = sink;
+      }
+      
+      @Override
+      protected void compute()
+      {
+         // Splits the range in half until it has a single row.
+         if (to - from > 1)
+         {
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowAction(p, from, middle, modulus, crank, sink),
+               new RowAction(p, middle, to, modulus, crank, sink));
+            return;
+         }
+         
+         sink.accept(row(p, from, modulus, crank), from);
+      }
+   }
+}
@@ -0,0 +1,164 @@
+package edu.ucla.math;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * A sampler of uniformly random partitions of a fixed positive integer
+ * <i>n</i>, by the recursive method of Nijenhuis and Wilf
+ * (<i>Combinatorial Algorithms</i>, chapter 10). While <i>m</i> > 0 remains
+ * to be partitioned, the sampler picks a pair (<i>d</i>, <i>j</i>) with the
+ * probability <i>d</i> <i>p</i>(<i>m</i> − <i>jd</i>) /
+ * (<i>m</i> <i>p</i>(<i>m</i>)), appends <i>j</i> copies of the part <i>d</i>
+ * and continues with <i>m</i> − <i>jd</i>.
+ * <p>
+ * Unlike {@link PartitionSampler#sampleExactly()}, no sample is ever
+ * rejected, so the cost of a sample does not depend on luck. The counts
+ * <i>p</i>(<i>m</i>) come from a table shared by all samplers, which grows to
+ * <i>n</i> the first time it is needed. A sampler is not thread-safe; each
+ * thread should use its own sampler.
+ * 
+ * @author Kris Torres
+ */
+public final class UniformPartitionSampler
+{
+   /** The weight of the sampled partitions. */
+   private final int n;
+   
+   /** The source of uniformly distributed random 64-bit integers. */
+   private final LongSupplier random;
+   
+   /** The builder into which the parts of each sample are appended. */
+   private final PartitionBuilder builder = new PartitionBuilder();
+   
+   /** The metrics to which the cost of each sample is reported. */
+   private SamplerMetrics metrics = SamplerMetrics.NONE;
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer.
+    * 
+    * @param n   the positive integer
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   public UniformPartitionSampler(int n) { this(n, new SplittableRandom()); }
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer, using the specified random number generator.
+    * 
+    * @param n        the positive integer
+    * @param random   the random number generator
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the random number generator is
+    *         <code>null</code>
+    */
+   public UniformPartitionSampler(int n, Random random)
+   {
+      this(n, RandomSources.longSource(random));
+   }
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer, using the specified random number generator.
+    * 
+    * @param n        the positive integer
+    * @param random   the random number generator
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    * @throws NullPointerException if the random number generator is
+    *         <code>null</code>
+    */
+   public UniformPartitionSampler(int n, SplittableRandom random)
+   {
+      this(n, RandomSources.longSource(random));
+   }
+   
+   /**
+    * Constructs a sampler of uniformly random partitions of the specified
+    * positive integer, using the specified source of random integers.
+    * 
+    * @param n        the positive integer
+    * @param random   the source of random 64-bit integers
+    * 
+    * @throws IllegalArgumentException if <i>n</i> < 1
+    */
+   private UniformPartitionSampler(int n, LongSupplier random)
+   {
+      // Tests if n is positive.
+      if (n < 1) throw new IllegalArgumentException("Illegal weight: " + n);
+      
+      this.n = n;
+      this.random = random;
+      PartitionCounts.count(n);
+   }
+   
+   /**
+    * Returns a uniformly random partition of the positive integer of this
+    * sampler.
+    * 
+    * @return a random partition
+    */
+   public Partition sample()
+   {
+      long start = System.nanoTime();
+      builder.clear();
+      int m = n;
+      
+      while (m > 0)
+      {
+         // Picks (d, j) by subtracting d p(m − jd) from a random integer in
+         // [0, m p(m)) until it becomes negative.
+         BigInteger bound = PartitionCounts.count(m).multiply(
+            BigInteger.valueOf(m));
+         BigInteger z = RandomSources.nextBigInteger(random, bound);
+         int d = 1;
+         int j = 1;
+         
+         while (true)
+         {
+            BigInteger term = PartitionCounts.count(m - j * d).multiply(
+               BigInteger.valueOf(d));
+            z = z.subtract(term);
+            if (z.signum() < 0) break;
+            
+            // Moves on to the next pair (d, j) with jd ≤ m.
+            if ((j + 1) * d <= m)
+            {
+               j++;
+            }
+            else
+            {
+               d++;
+               j = 1;
+            }
+         }
+         
+         builder.append(d, j);
+         m -= j * d;
+      }
+      
+      metrics.record(1, System.nanoTime() - start);
+      return builder.build();
+   }
+   
+   /**
+    * Sets the metrics to which this sampler reports the time taken by each
+    * sample. Every sample takes a single attempt.
+    * 
+    * @param metrics   the metrics
+    * 
+    * @throws NullPointerException if the metrics are <code>null</code>
+    */
+   public void setMetrics(SamplerMetrics metrics)
+   {
+      // Tests if the given metrics are not null.
+      if (metrics == null) throw new NullPointerException("Metrics are null.");
+      
+      this.metrics = metrics;
+   }
+}
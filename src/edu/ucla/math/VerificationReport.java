@@ -0,0 +1,139 @@
+package edu.ucla.math;
+
+/**
+ * The outcome of a run of a {@link BijectionVerifier}: how many partitions
+ * were checked and how fast, and the first counterexample found, if any.
+ * 
+ * @author Kris Torres
+ */
+public final class VerificationReport
+{
+   /** The number of partitions that were checked. */
+   private final long partitions;
+   
+   /** The number of partitions that were not in the domain. */
+   private final long skipped;
+   
+   /** The wall-clock time taken by the run, in nanoseconds. */
+   private final long nanos;
+   
+   /** The number of threads of the run. */
+   private final int threads;
+   
+   /** The first counterexample, or <code>null</code> if there is none. */
+   private final Partition counterexample;
+   
+   /** Why the counterexample fails, or <code>null</code> if there is none. */
+   private final String failure;
+   
+   /**
+    * Constructs a report of a run with the specified figures.
+    * 
+    * @param partitions       the number of partitions that were checked
+    * @param skipped          the number of partitions that were not in the
+    *                         domain
+    * @param nanos            the wall-clock time taken by the run
+    * @param threads          the number of threads of the run
+    * @param counterexample   the first counterexample, or <code>null</code>
+    * @param failure          why the counterexample fails, or
+    *                         <code>null</code>
+    */
+   VerificationReport(long partitions, long skipped, long nanos, int threads,
+      Partition counterexample, String failure)
+   {
+      this.partitions = partitions;
+      this.skipped = skipped;
+      this.nanos = nanos;
+      this.threads = threads;
+      this.counterexample = counterexample;
+      this.failure = failure;
+   }
+   
+   /**
+    * Returns the first counterexample found by the run, which is a partition
+    * in the domain that the bijection fails on.
+    * 
+    * @return the counterexample, or <code>null</code> if the run passed
+    */
+   public Partition counterexample() { return counterexample; }
+   
+   /**
+    * Returns why the first counterexample fails.
+    * 
+    * @return the reason, or <code>null</code> if the run passed
+    */
+   public String failure() { return failure; }
+   
+   /**
+    * Tests if the run found no counterexample.
+    * 
+    * @return <code>true</code> if the run passed, or <code>false</code>
+    *         otherwise
+    */
+   public boolean isPassed() { return counterexample == null; }
+   
+   /**
+    * Returns the average wall-clock time per checked partition.
+    * 
+    * @return the number of nanoseconds per partition, or 0 if no partitions
+    *         were checked
+    */
+   public double nanosPerPartition()
+   {
+      return partitions == 0 ? 0.0 : (double) nanos / partitions;
+   }
+   
+   /**
+    * Returns the number of partitions that were checked.
+    * 
+    * @return the number of partitions
+    */
+   public long numberOfPartitions() { return partitions; }
+   
+   /**
+    * Returns the number of partitions of the enumerated family that were not
+    * in the domain of the bijection, and so were not checked.
+    * 
+    * @return the number of skipped partitions
+    */
+   public long numberOfSkipped() { return skipped; }
+   
+   /**
+    * Returns the number of threads of the run.
+    * 
+    * @return the number of threads
+    */
+   public int numberOfThreads() { return threads; }
+   
+   /**
+    * Returns the number of partitions checked per second of wall-clock time.
+    * 
+    * @return the throughput, or 0 if no time has passed
+    */
+   public double partitionsPerSecond()
+   {
+      return nanos == 0 ? 0.0 : partitions * 1e9 / nanos;
+   }
+   
+   /**
+    * Returns a string representation of this report.
+    * 
+    * @return a string representation of this report
+    */
+   @Override
+   public String toString()
+   {
+      String outcome = isPassed() ? "passed"
+         : "counterexample " + counterexample + ": " + failure;
+      return String.format("%d partitions (%d skipped) in %.4g ms on %d "
+         + "threads, %.4g per second; %s", partitions, skipped, nanos / 1e6,
+         threads, partitionsPerSecond(), outcome);
+   }
+   
+   /**
+    * Returns the wall-clock time taken by the run.
+    * 
+    * @return the number of nanoseconds
+    */
+   public long totalNanos() { return nanos; }
+}